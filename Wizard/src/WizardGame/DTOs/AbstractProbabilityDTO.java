@@ -1,14 +1,24 @@
-package WizardGame.DTOs;
-
-import WizardGame.models.Card;
-
-import java.util.Set;
-
-public record AbstractProbabilityDTO(
-        Card card,
-        Card trumpCard,
-        Set<Card> ownCards,
-        int botCardsNumberAtTrickStart,
-        int botsNumber
-) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.models.Card;
+
+import java.util.Set;
+
+/**
+ * @param unseenCards cards the seat has not seen, e.g. {@link CreateTrickBidsContextDTO#unseenCards()};
+ *                    null to derive them from the own cards and the trump
+ */
+public record AbstractProbabilityDTO(
+        Card card,
+        Card trumpCard,
+        Set<Card> ownCards,
+        int botCardsNumberAtTrickStart,
+        int botsNumber,
+        Set<Card> unseenCards
+) {
+
+    public AbstractProbabilityDTO(Card card, Card trumpCard, Set<Card> ownCards, int botCardsNumberAtTrickStart,
+                                  int botsNumber) {
+        this(card, trumpCard, ownCards, botCardsNumberAtTrickStart, botsNumber, null);
+    }
+}
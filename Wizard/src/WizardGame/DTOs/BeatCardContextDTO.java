@@ -1,11 +1,115 @@
-package WizardGame.DTOs;
-
-import WizardGame.enums.CardType;
-import WizardGame.contexts.RoundContext;
-import WizardGame.models.Card;
-
-import java.util.Set;
-
-public record BeatCardContextDTO(String ownId, TrickContextDTO trickContextDTO, RoundContext roundContext,
-                                 Set<CardType> allowedResponses, Set<Card> ownCards, GameContextDTO gameContextDTO) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.enums.CardType;
+import WizardGame.contexts.RoundContext;
+import WizardGame.handlers.CardManager;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+import java.util.Set;
+
+/**
+ * Every bot reuses one instance for all of its responses; it is only valid during the call, see {@link #snapshot()}.
+ * {@code allowedMask} is the mask over card ordinals of the cards that may be played, computed by the engine;
+ * {@code allowedCards} holds the same cards as a set of its own, strategies may modify it.
+ */
+public final class BeatCardContextDTO {
+    private final String ownId;
+    private TrickContextDTO trickContextDTO;
+    private RoundContext roundContext;
+    private Set<CardType> allowedResponses;
+    private final Set<Card> ownCards;
+    private GameContextDTO gameContextDTO;
+    private long allowedMask;
+    private final CardSet allowedCards;
+    private final Set<Card> unseenCards;
+
+    public BeatCardContextDTO(String ownId, TrickContextDTO trickContextDTO, RoundContext roundContext,
+                              Set<CardType> allowedResponses, Set<Card> ownCards, GameContextDTO gameContextDTO,
+                              long allowedMask, CardSet allowedCards) {
+        this(ownId, trickContextDTO, roundContext, allowedResponses, ownCards, gameContextDTO, allowedMask, allowedCards,
+                deriveUnseenCards(roundContext, trickContextDTO, ownCards));
+    }
+
+    public BeatCardContextDTO(String ownId, TrickContextDTO trickContextDTO, RoundContext roundContext,
+                              Set<CardType> allowedResponses, Set<Card> ownCards, GameContextDTO gameContextDTO,
+                              long allowedMask, CardSet allowedCards, Set<Card> unseenCards) {
+        this.unseenCards = unseenCards;
+        this.ownId = ownId;
+        this.trickContextDTO = trickContextDTO;
+        this.roundContext = roundContext;
+        this.allowedResponses = allowedResponses;
+        this.ownCards = ownCards;
+        this.gameContextDTO = gameContextDTO;
+        this.allowedMask = allowedMask;
+        this.allowedCards = allowedCards;
+    }
+
+    /**
+     * Called by the engine only; refills {@code allowedCards} from the mask.
+     */
+    public BeatCardContextDTO update(TrickContextDTO trickContextDTO, RoundContext roundContext,
+                                     Set<CardType> allowedResponses, GameContextDTO gameContextDTO, long allowedMask) {
+        this.trickContextDTO = trickContextDTO;
+        this.roundContext = roundContext;
+        this.allowedResponses = allowedResponses;
+        this.gameContextDTO = gameContextDTO;
+        this.allowedMask = allowedMask;
+        allowedCards.setMask(allowedMask);
+        return this;
+    }
+
+    public BeatCardContextDTO snapshot() {
+        return new BeatCardContextDTO(ownId, trickContextDTO.snapshot(), roundContext.snapshot(), allowedResponses,
+                new CardSet(ownCards), gameContextDTO.snapshot(), allowedMask, CardSet.of(allowedMask),
+                new CardSet(unseenCards));
+    }
+
+    // the lead is added to the round's used cards only once the trick is complete
+    private static Set<Card> deriveUnseenCards(RoundContext roundContext, TrickContextDTO trickContextDTO, Set<Card> ownCards) {
+        CardSet unseenCards = CardManager.unseenCards(ownCards, roundContext.trumpCard(), roundContext.usedCards());
+
+        unseenCards.remove(trickContextDTO.firstDroppedCard());
+        unseenCards.removeAll(trickContextDTO.responses());
+        return unseenCards;
+    }
+
+    public String ownId() {
+        return ownId;
+    }
+
+    public TrickContextDTO trickContextDTO() {
+        return trickContextDTO;
+    }
+
+    public RoundContext roundContext() {
+        return roundContext;
+    }
+
+    public Set<CardType> allowedResponses() {
+        return allowedResponses;
+    }
+
+    public Set<Card> ownCards() {
+        return ownCards;
+    }
+
+    public GameContextDTO gameContextDTO() {
+        return gameContextDTO;
+    }
+
+    public long allowedMask() {
+        return allowedMask;
+    }
+
+    public Set<Card> allowedCards() {
+        return allowedCards;
+    }
+
+    /**
+     * @return cards of the round this seat has not seen yet, the cards of the current trick are seen; do not modify
+     */
+    public Set<Card> unseenCards() {
+        return unseenCards;
+    }
+}
@@ -1,14 +1,95 @@
-package WizardGame.DTOs;
-
-import WizardGame.models.Card;
-
-import java.util.Map;
-import java.util.Set;
-
-public record CreateTrickBidsContextDTO(GameContextDTO gameContextDTO,
-                                        Map<String, TrickBidDTO> trickBids,
-                                        Card trumpCard,
-                                        Set<Card> ownCards,
-                                        String dealerId,
-                                        String ownID) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.handlers.CardManager;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every bot reuses one instance for all of its bids; it is only valid during the call, see {@link #snapshot()}.
+ */
+public final class CreateTrickBidsContextDTO {
+    private GameContextDTO gameContextDTO;
+    private Map<String, TrickBidDTO> trickBids;
+    private Card trumpCard;
+    private final Set<Card> ownCards;
+    private String dealerId;
+    private final String ownID;
+    private final Set<Card> unseenCards;
+
+    public CreateTrickBidsContextDTO(GameContextDTO gameContextDTO,
+                                     Map<String, TrickBidDTO> trickBids,
+                                     Card trumpCard,
+                                     Set<Card> ownCards,
+                                     String dealerId,
+                                     String ownID) {
+        this(gameContextDTO, trickBids, trumpCard, ownCards, dealerId, ownID,
+                CardManager.unseenCards(ownCards, trumpCard, Set.of()));
+    }
+
+    public CreateTrickBidsContextDTO(GameContextDTO gameContextDTO,
+                                     Map<String, TrickBidDTO> trickBids,
+                                     Card trumpCard,
+                                     Set<Card> ownCards,
+                                     String dealerId,
+                                     String ownID,
+                                     Set<Card> unseenCards) {
+        this.unseenCards = unseenCards;
+        this.gameContextDTO = gameContextDTO;
+        this.trickBids = trickBids;
+        this.trumpCard = trumpCard;
+        this.ownCards = ownCards;
+        this.dealerId = dealerId;
+        this.ownID = ownID;
+    }
+
+    /**
+     * Called by the engine only.
+     */
+    public CreateTrickBidsContextDTO update(GameContextDTO gameContextDTO, Map<String, TrickBidDTO> trickBids,
+                                            Card trumpCard, String dealerId) {
+        this.gameContextDTO = gameContextDTO;
+        this.trickBids = trickBids;
+        this.trumpCard = trumpCard;
+        this.dealerId = dealerId;
+        return this;
+    }
+
+    public CreateTrickBidsContextDTO snapshot() {
+        return new CreateTrickBidsContextDTO(gameContextDTO.snapshot(), Map.copyOf(trickBids), trumpCard,
+                new CardSet(ownCards), dealerId, ownID, new CardSet(unseenCards));
+    }
+
+    public GameContextDTO gameContextDTO() {
+        return gameContextDTO;
+    }
+
+    public Map<String, TrickBidDTO> trickBids() {
+        return trickBids;
+    }
+
+    public Card trumpCard() {
+        return trumpCard;
+    }
+
+    public Set<Card> ownCards() {
+        return ownCards;
+    }
+
+    public String dealerId() {
+        return dealerId;
+    }
+
+    public String ownID() {
+        return ownID;
+    }
+
+    /**
+     * @return cards this seat has not seen: all but the own hand and the trump; do not modify
+     */
+    public Set<Card> unseenCards() {
+        return unseenCards;
+    }
+}
@@ -1,9 +1,70 @@
-package WizardGame.DTOs;
-
-import WizardGame.contexts.RoundContext;
-import WizardGame.models.Card;
-
-import java.util.Set;
-
-public record DropCardContextDTO(String ownId, RoundContext roundContext, Set<Card> ownCards, GameContextDTO gameContextDTO) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.contexts.RoundContext;
+import WizardGame.handlers.CardManager;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+import java.util.Set;
+
+/**
+ * Every bot reuses one instance for all of its leads; it is only valid during the call, see {@link #snapshot()}.
+ */
+public final class DropCardContextDTO {
+    private final String ownId;
+    private RoundContext roundContext;
+    private final Set<Card> ownCards;
+    private GameContextDTO gameContextDTO;
+    private final Set<Card> unseenCards;
+
+    public DropCardContextDTO(String ownId, RoundContext roundContext, Set<Card> ownCards, GameContextDTO gameContextDTO) {
+        this(ownId, roundContext, ownCards, gameContextDTO,
+                CardManager.unseenCards(ownCards, roundContext.trumpCard(), roundContext.usedCards()));
+    }
+
+    public DropCardContextDTO(String ownId, RoundContext roundContext, Set<Card> ownCards, GameContextDTO gameContextDTO,
+                              Set<Card> unseenCards) {
+        this.ownId = ownId;
+        this.roundContext = roundContext;
+        this.ownCards = ownCards;
+        this.gameContextDTO = gameContextDTO;
+        this.unseenCards = unseenCards;
+    }
+
+    /**
+     * Called by the engine only.
+     */
+    public DropCardContextDTO update(RoundContext roundContext, GameContextDTO gameContextDTO) {
+        this.roundContext = roundContext;
+        this.gameContextDTO = gameContextDTO;
+        return this;
+    }
+
+    public DropCardContextDTO snapshot() {
+        return new DropCardContextDTO(ownId, roundContext.snapshot(), new CardSet(ownCards), gameContextDTO.snapshot(),
+                new CardSet(unseenCards));
+    }
+
+    public String ownId() {
+        return ownId;
+    }
+
+    public RoundContext roundContext() {
+        return roundContext;
+    }
+
+    public Set<Card> ownCards() {
+        return ownCards;
+    }
+
+    public GameContextDTO gameContextDTO() {
+        return gameContextDTO;
+    }
+
+    /**
+     * @return cards of the round this seat has not seen yet; do not modify
+     */
+    public Set<Card> unseenCards() {
+        return unseenCards;
+    }
+}
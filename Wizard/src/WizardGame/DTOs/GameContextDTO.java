@@ -1,10 +1,61 @@
-package WizardGame.DTOs;
-
-import WizardGame.contexts.RoundContext;
-
-import java.util.Map;
-import java.util.Stack;
-
-public record GameContextDTO(int totalRoundAmount, int currentRoundNumber,
-                             Map<String, Integer> botScores, Stack<RoundContext> roundContexts, int botAmount) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.contexts.RoundHistory;
+
+import java.util.Map;
+
+/**
+ * Read-only view of the game for strategy decisions. The engine keeps one instance per game and updates it
+ * in place, so a strategy that wants to keep it after the call has to take a {@link #snapshot()}.
+ */
+public final class GameContextDTO {
+    private final int totalRoundAmount;
+    private int currentRoundNumber;
+    private final Map<String, Integer> botScores;
+    private final RoundHistory roundContexts;
+    private final int botAmount;
+
+    public GameContextDTO(int totalRoundAmount, int currentRoundNumber,
+                          Map<String, Integer> botScores, RoundHistory roundContexts, int botAmount) {
+        this.totalRoundAmount = totalRoundAmount;
+        this.currentRoundNumber = currentRoundNumber;
+        this.botScores = botScores;
+        this.roundContexts = roundContexts;
+        this.botAmount = botAmount;
+    }
+
+    /**
+     * Called by the engine only.
+     */
+    public void setCurrentRoundNumber(int currentRoundNumber) {
+        this.currentRoundNumber = currentRoundNumber;
+    }
+
+    /**
+     * @return a detached copy, including copies of the scores and of the kept rounds
+     */
+    public GameContextDTO snapshot() {
+        return new GameContextDTO(totalRoundAmount, currentRoundNumber, Map.copyOf(botScores),
+                roundContexts.snapshot(), botAmount);
+    }
+
+    public int totalRoundAmount() {
+        return totalRoundAmount;
+    }
+
+    public int currentRoundNumber() {
+        return currentRoundNumber;
+    }
+
+    public Map<String, Integer> botScores() {
+        return botScores;
+    }
+
+    public RoundHistory roundContexts() {
+        return roundContexts;
+    }
+
+    public int botAmount() {
+        return botAmount;
+    }
+}
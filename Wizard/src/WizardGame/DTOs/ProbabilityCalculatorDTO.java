@@ -1,17 +1,29 @@
-package WizardGame.DTOs;
-
-import WizardGame.models.Card;
-
-import java.util.Map;
-import java.util.Set;
-
-public record ProbabilityCalculatorDTO(Card card,
-                                       Card trumpCard,
-                                       Set<Card> usedCards,
-                                       Set<Card> ownCards,
-                                       Map<String, DroppedCardsInTrickDTO> droppedCardsInTrickDTO,
-                                       int botCardsNumberAtTrickStart,
-                                       int botsNumber,
-                                       boolean isFirstToDrop
-                                       ) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.models.Card;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @param unseenCards cards the seat has not seen, e.g. {@link BeatCardContextDTO#unseenCards()};
+ *                    null to derive them from the used cards, the own cards and the trump
+ */
+public record ProbabilityCalculatorDTO(Card card,
+                                       Card trumpCard,
+                                       Set<Card> usedCards,
+                                       Set<Card> ownCards,
+                                       Map<String, DroppedCardsInTrickDTO> droppedCardsInTrickDTO,
+                                       int botCardsNumberAtTrickStart,
+                                       int botsNumber,
+                                       boolean isFirstToDrop,
+                                       Set<Card> unseenCards
+                                       ) {
+
+    public ProbabilityCalculatorDTO(Card card, Card trumpCard, Set<Card> usedCards, Set<Card> ownCards,
+                                    Map<String, DroppedCardsInTrickDTO> droppedCardsInTrickDTO,
+                                    int botCardsNumberAtTrickStart, int botsNumber, boolean isFirstToDrop) {
+        this(card, trumpCard, usedCards, ownCards, droppedCardsInTrickDTO, botCardsNumberAtTrickStart, botsNumber,
+                isFirstToDrop, null);
+    }
+}
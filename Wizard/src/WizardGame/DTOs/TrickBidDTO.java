@@ -1,6 +1,21 @@
-package WizardGame.DTOs;
-
-import WizardGame.enums.TrickBidExists;
-
-public record TrickBidDTO(TrickBidExists trickBidExists, Integer trickBid) {
-}
+package WizardGame.DTOs;
+
+import WizardGame.enums.TrickBidExists;
+
+public record TrickBidDTO(TrickBidExists trickBidExists, Integer trickBid) {
+    private static final int CACHED_BIDS = 61;
+    private static final TrickBidDTO[] CACHE = new TrickBidDTO[CACHED_BIDS];
+
+    static {
+        for (int bid = 0; bid < CACHED_BIDS; bid++) {
+            CACHE[bid] = new TrickBidDTO(TrickBidExists.YES, bid);
+        }
+    }
+
+    public static TrickBidDTO of(int trickBid) {
+        if (trickBid >= 0 && trickBid < CACHED_BIDS) {
+            return CACHE[trickBid];
+        }
+        return new TrickBidDTO(TrickBidExists.YES, trickBid);
+    }
+}
@@ -1,12 +1,56 @@
-package WizardGame.DTOs;
-
-import WizardGame.models.Card;
-
-import java.util.List;
-
-public record TrickContextDTO(List<Card> responses, Card firstDroppedCard) {
-
-    public void addRequest(Card card) {
-        responses.add(card);
-    }
-}
+package WizardGame.DTOs;
+
+import WizardGame.models.Card;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cards of the current trick. The engine reuses one instance for every trick of a game, see {@link #snapshot()}.
+ */
+public final class TrickContextDTO {
+    private final List<Card> responses;
+    private Card firstDroppedCard;
+
+    public TrickContextDTO(List<Card> responses, Card firstDroppedCard) {
+        this.responses = responses;
+        this.firstDroppedCard = firstDroppedCard;
+    }
+
+    /**
+     * Clears the responses for a new trick. Called by the engine only.
+     */
+    public void start(Card firstDroppedCard) {
+        this.firstDroppedCard = firstDroppedCard;
+        responses.clear();
+    }
+
+    public void addRequest(Card card) {
+        responses.add(card);
+    }
+
+    public TrickContextDTO snapshot() {
+        return new TrickContextDTO(new ArrayList<>(responses), firstDroppedCard);
+    }
+
+    /**
+     * @return ordinals of the lead and the responses in play order
+     */
+    public int[] ordinals() {
+        int[] ordinals = new int[responses.size() + 1];
+        ordinals[0] = firstDroppedCard.getOrdinal();
+
+        for (int i = 0; i < responses.size(); i++) {
+            ordinals[i + 1] = responses.get(i).getOrdinal();
+        }
+        return ordinals;
+    }
+
+    public List<Card> responses() {
+        return responses;
+    }
+
+    public Card firstDroppedCard() {
+        return firstDroppedCard;
+    }
+}
@@ -1,168 +1,185 @@
-package WizardGame;
-
-import WizardGame.DTOs.DroppedCardsInTrickDTO;
-import WizardGame.DTOs.ProbabilityCalculatorDTO;
-import WizardGame.contexts.GameContext;
-import WizardGame.contexts.RoundContext;
-import WizardGame.enums.CardType;
-import WizardGame.enums.ProbabilityFormat;
-import WizardGame.handlers.GameHandler;
-import WizardGame.handlers.GameManager;
-import WizardGame.handlers.ProbabilityCalculator;
-import WizardGame.models.Card;
-import WizardGame.models.CardModel;
-import WizardGame.models.GameBot;
-import WizardGame.models.GameResult;
-import WizardGame.strategies.*;
-
-import java.util.*;
-import java.util.stream.Collectors;
-
-public class Main {
-    public static void main(String[] args) {
-handleGames( new AnalystV1_2(),new ChatGPTV4(), new MetaCrusherV1(),  new AnalystV1_1());
-    }
-
-    static void pHandler(){
-        CardModel dropCard = new CardModel(CardType.GREEN, 13);
-
-        Set<CardModel> cardModels = Set.of(
-                dropCard,
-               new CardModel(CardType.RED, 3),
-                new CardModel(CardType.RED, 9)
-        );
-
-        Set<Card> ownCards = GameManager.findCards(cardModels);
-
-        Set<Card> usedCards = new HashSet<>();
-
-        Map<String, DroppedCardsInTrickDTO> dropped = new HashMap<>();
-        dropped.put("qweasd", new DroppedCardsInTrickDTO());
-        dropped.put("qweddasd", new DroppedCardsInTrickDTO());
-        dropped.put("qssswe", new DroppedCardsInTrickDTO());
-
-        ProbabilityCalculatorDTO dto1 = new ProbabilityCalculatorDTO(
-                GameManager.findCard(dropCard),
-                GameManager.findCard(new CardModel(CardType.GREEN, 4)),
-                usedCards,
-                ownCards,
-                dropped,
-                3,
-                dropped.size(),
-                false
-        );
-
-
-        double probability = ProbabilityCalculator.calculateProbabilityToBeat(dto1, ProbabilityFormat.TOTAL);
-
-        System.out.println("Dropped Card: " + dto1.card());
-        System.out.println("Trump card: " + dto1.trumpCard());
-    }
-
-    static void handleGames(GameStrategy... strategies){
-        List<GameBot> gameBots = new ArrayList<>();
-
-        for(GameStrategy gs : strategies){
-            gameBots.add(new GameBot(gs));
-        }
-
-        Map<GameBot, Integer> wins = initializeDefaultFullTrickWins(new HashSet<>(gameBots));
-
-        int totalRounds = (int) Math.floor((double) 60 / gameBots.size());
-
-        int games = 1000;
-int drawAmount = 0;
-
-int notEnough = 0;
-int tooMuch = 0;
-int perfekt = 0;
-
-for(int i = 0; i < games; i++){
-    GameContext gameContext = new GameContext(new HashSet<>(gameBots), totalRounds);
-    GameHandler gameHandler = new GameHandler(gameContext);
-    GameResult gameResult = gameHandler.start();
-
-String botId = findGameBotIdByStrategy(new AnalystV1_2(), gameBots);
-
-for(RoundContext rc : gameResult.gameContext().getRoundContexts()){
-int bids = rc.fullTrickBids().get(botId).trickBid();
-   int totalWins = rc.fullTrickWins().get(botId);
-
-   if(bids < totalWins){
-       tooMuch++;
-   }else if(bids > totalWins){
-       notEnough++;
-   }else{
-       perfekt++;
-   }
-}
-    if(gameResult.winnerBot() != null){
-        wins.merge(gameResult.winnerBot(), 1, Integer::sum);
-    }else{
-        drawAmount += gameResult.drawAmount();
-    }
-}
-        printBidWinsResults(notEnough, tooMuch, perfekt);
-        System.out.println("games: " + games + "; total rounds in every game: " + totalRounds);
-        System.out.println("------------------------------------------------");
-
-     printBotResults(wins, games);
-
-        System.out.println("Draws: " + drawAmount);
-    }
-
-    private static void printBotResults(Map<GameBot, Integer> wins, int games){
-        LinkedHashMap<GameBot, Integer> sortedMap = wins.entrySet()
-                .stream()
-                .sorted((e1, e2) -> e2.getValue().compareTo(e1.getValue()))
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new
-                ));
-
-        for(Map.Entry<GameBot, Integer> map : sortedMap.entrySet()){
-            int winAmount = map.getValue();
-            double winrate = ((double) winAmount /games) * 100;
-
-            String rateFormat = String.format("%.2f", winrate);
-            System.out.println(map.getKey().getStrategyName() + ": " + winAmount+ " wins;  winrate: " + rateFormat+"%");
-        }
-    }
-
-    private static String findGameBotIdByStrategy(GameStrategy gameStrategy, List<GameBot> gameBots){
-        for(GameBot gameBot : gameBots){
-            if(gameBot.getStrategyName().equals(gameStrategy.getStrategyName())){
-                return gameBot.getGameBotId();
-            }
-        }
-        return "nothing found";
-    }
-
-    private static void printBidWinsResults(int notEnough, int tooMuch, int perfekt){
-        int allResult = tooMuch + notEnough + perfekt;
-
-        double tooMuchRate = ((double) tooMuch / allResult)*100;
-        double notEnoughRate = ((double) notEnough / allResult)*100;
-        double perfektRate = ((double) perfekt / allResult)*100;
-
-String tooMuchF = String.format("%.2f", tooMuchRate);
-String notEnoughF = String.format("%.2f", notEnoughRate);
-        String perfektF = String.format("%.2f", perfektRate);
-
-        System.out.println(": " + tooMuchF+"%");
-        System.out.println(": " + notEnoughF+"%");
-        System.out.println(": " + perfektF+"%");
-    }
-
-    static Map<GameBot, Integer> initializeDefaultFullTrickWins(Set<GameBot> gameBots){
-        Map<GameBot, Integer> fullTrickWins = new HashMap<>();
-
-        for (GameBot gameBot : gameBots) {
-            fullTrickWins.put(gameBot, 0);
-        }
-
-        return fullTrickWins;
-    }
-}
+package WizardGame;
+
+import WizardGame.DTOs.DroppedCardsInTrickDTO;
+import WizardGame.DTOs.ProbabilityCalculatorDTO;
+import WizardGame.enums.CardType;
+import WizardGame.enums.ProbabilityFormat;
+import WizardGame.handlers.BotTournament;
+import WizardGame.handlers.EndgameTablebase;
+import WizardGame.handlers.EndgameTablebaseGenerator;
+import WizardGame.handlers.GameRunner;
+import WizardGame.handlers.GameManager;
+import WizardGame.handlers.ProbabilityCache;
+import WizardGame.handlers.ProbabilityCalculator;
+import WizardGame.models.Card;
+import WizardGame.models.CardModel;
+import WizardGame.models.SimulationStats;
+import WizardGame.strategies.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Usage: {@code Main [--tournament] [--cache] [--pimc]}. Plays a batch of games, or with {@code --tournament} every
+ * pair of the same strategies; {@code --cache} puts a {@link ProbabilityCache} in front of the probability calculator
+ * and prints its statistics at the end. {@code --pimc} seats a {@link PimcStrategy} instead of AnalystV1_2, which
+ * reads the last two tricks from {@value #TABLEBASE_FILE}, generated into the working directory on the first run.
+ */
+public class Main {
+    private static final long MASTER_SEED = 20240101L;
+    private static final String TOURNAMENT_FLAG = "--tournament";
+    private static final String CACHE_FLAG = "--cache";
+    private static final int CACHE_CAPACITY = 1 << 16;
+    private static final String PIMC_FLAG = "--pimc";
+    private static final String TABLEBASE_FILE = "endgame-4.tb";
+    private static final int TABLEBASE_SEATS = 4;
+    private static final int TABLEBASE_CARDS = 2;
+
+    public static void main(String[] args) {
+        List<String> flags = List.of(args);
+
+        if(flags.contains(CACHE_FLAG)){
+            ProbabilityCalculator.setCache(new ProbabilityCache(CACHE_CAPACITY));
+        }
+
+        Supplier<? extends GameStrategy> firstSeat = AnalystV1_2::new;
+
+        if(flags.contains(PIMC_FLAG)){
+            EndgameTablebase tablebase = openTablebase();
+            firstSeat = () -> new PimcStrategy(new MetaCrusherV1(), PimcStrategy.DEFAULT_SAMPLES,
+                    PimcStrategy.DEFAULT_TIME_BUDGET, PimcStrategy.DEFAULT_SOLVED_CARDS, tablebase);
+        }
+
+        if(flags.contains(TOURNAMENT_FLAG)){
+            BotTournament.runTournament(List.of(firstSeat, ChatGPTV4::new, MetaCrusherV1::new,
+                    AnalystV1_1::new));
+        }else{
+handleGames(firstSeat, ChatGPTV4::new, MetaCrusherV1::new, AnalystV1_1::new);
+        }
+    }
+
+    private static EndgameTablebase openTablebase(){
+        try {
+            return EndgameTablebaseGenerator.openOrGenerate(Path.of(TABLEBASE_FILE), TABLEBASE_SEATS, TABLEBASE_CARDS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void pHandler(){
+        CardModel dropCard = new CardModel(CardType.GREEN, 13);
+
+        Set<CardModel> cardModels = Set.of(
+                dropCard,
+               new CardModel(CardType.RED, 3),
+                new CardModel(CardType.RED, 9)
+        );
+
+        Set<Card> ownCards = GameManager.findCards(cardModels);
+
+        Set<Card> usedCards = new HashSet<>();
+
+        Map<String, DroppedCardsInTrickDTO> dropped = new HashMap<>();
+        dropped.put("qweasd", new DroppedCardsInTrickDTO());
+        dropped.put("qweddasd", new DroppedCardsInTrickDTO());
+        dropped.put("qssswe", new DroppedCardsInTrickDTO());
+
+        ProbabilityCalculatorDTO dto1 = new ProbabilityCalculatorDTO(
+                GameManager.findCard(dropCard),
+                GameManager.findCard(new CardModel(CardType.GREEN, 4)),
+                usedCards,
+                ownCards,
+                dropped,
+                3,
+                dropped.size(),
+                false
+        );
+
+
+        double probability = ProbabilityCalculator.calculateProbabilityToBeat(dto1, ProbabilityFormat.TOTAL);
+
+        System.out.println("Dropped Card: " + dto1.card());
+        System.out.println("Trump card: " + dto1.trumpCard());
+    }
+
+    @SafeVarargs
+    static void handleGames(Supplier<? extends GameStrategy>... strategyFactories){
+        List<Supplier<? extends GameStrategy>> factories = new ArrayList<>();
+
+        for(Supplier<? extends GameStrategy> strategyFactory : strategyFactories){
+            factories.add(strategyFactory);
+        }
+        handleGames(MASTER_SEED, Runtime.getRuntime().availableProcessors(), factories);
+    }
+
+    static void handleGames(long masterSeed, int parallelism, List<Supplier<? extends GameStrategy>> strategyFactories){
+        int totalRounds = (int) Math.floor((double) 60 / strategyFactories.size());
+
+        int games = 1000;
+
+        GameRunner gameRunner = new GameRunner(strategyFactories, totalRounds);
+        SimulationStats stats = gameRunner.run(games, masterSeed, parallelism);
+
+        int analystSeat = findSeatByStrategy(new AnalystV1_2(), stats);
+
+        if(analystSeat >= 0){
+            printBidWinsResults(stats.getNotEnoughWins(analystSeat), stats.getTooMuchWins(analystSeat),
+                    stats.getExactBids(analystSeat));
+        }
+        System.out.println("games: " + games + "; total rounds in every game: " + totalRounds);
+        System.out.println("------------------------------------------------");
+
+     printBotResults(stats, games);
+
+        System.out.println("Draws: " + stats.getDraws());
+
+        if(ProbabilityCalculator.getCache() != null){
+            System.out.println(ProbabilityCalculator.getCache());
+        }
+    }
+
+    private static void printBotResults(SimulationStats stats, int games){
+        List<Integer> seats = new ArrayList<>();
+
+        for(int seat = 0; seat < stats.getSeatAmount(); seat++){
+            seats.add(seat);
+        }
+        seats.sort(Comparator.comparingLong(stats::getWins).reversed());
+
+        for(int seat : seats){
+            long winAmount = stats.getWins(seat);
+            double winrate = ((double) winAmount /games) * 100;
+
+            String rateFormat = String.format("%.2f", winrate);
+            System.out.println(stats.getStrategyName(seat) + ": " + winAmount+ " wins;  winrate: " + rateFormat+"%");
+        }
+    }
+
+    private static int findSeatByStrategy(GameStrategy gameStrategy, SimulationStats stats){
+        for(int seat = 0; seat < stats.getSeatAmount(); seat++){
+            if(stats.getStrategyName(seat).equals(gameStrategy.getStrategyName())){
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    private static void printBidWinsResults(long notEnough, long tooMuch, long perfekt){
+        long allResult = tooMuch + notEnough + perfekt;
+
+        double tooMuchRate = ((double) tooMuch / allResult)*100;
+        double notEnoughRate = ((double) notEnough / allResult)*100;
+        double perfektRate = ((double) perfekt / allResult)*100;
+
+String tooMuchF = String.format("%.2f", tooMuchRate);
+String notEnoughF = String.format("%.2f", notEnoughRate);
+        String perfektF = String.format("%.2f", perfektRate);
+
+        System.out.println("профицит: " + tooMuchF+"%");
+        System.out.println("дефицит: " + notEnoughF+"%");
+        System.out.println("идеально: " + perfektF+"%");
+    }
+}
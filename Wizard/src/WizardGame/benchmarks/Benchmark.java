@@ -0,0 +1,13 @@
+package WizardGame.benchmarks;
+
+/**
+ * One benchmarked operation. The returned value is consumed by the harness so the JIT cannot drop the work.
+ */
+public interface Benchmark {
+    long invoke(int invocation);
+
+    /**
+     * Called once between warmup and measurement.
+     */
+    default void afterWarmup() {}
+}
@@ -0,0 +1,92 @@
+package WizardGame.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Minimal single-threaded benchmark loop: time-boxed warmup, then time-boxed measurement. Throughput comes
+ * from wall-clock time, allocation from the per-thread allocation counter (what JMH's {@code -prof gc} reports
+ * as {@code gc.alloc.rate.norm}), and GC count/time from the collector beans.
+ */
+public class BenchmarkHarness {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // the batch doubles until one batch takes at least this long, so cheap operations don't measure nanoTime
+    private static final long MIN_BATCH_NANOS = 1_000_000L;
+
+    private final long warmupNanos;
+    private final long measurementNanos;
+
+    private volatile long sink;
+
+    public BenchmarkHarness(Duration warmup, Duration measurement) {
+        warmupNanos = warmup.toNanos();
+        measurementNanos = measurement.toNanos();
+    }
+
+    public BenchmarkResult run(String name, Benchmark benchmark) {
+        int invocation = loop(benchmark, 0, warmupNanos).nextInvocation();
+        benchmark.afterWarmup();
+
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long allocated = THREADS.getCurrentThreadAllocatedBytes();
+
+        LoopResult measured = loop(benchmark, invocation, measurementNanos);
+
+        allocated = THREADS.getCurrentThreadAllocatedBytes() - allocated;
+
+        return new BenchmarkResult(name, measured.operations(), measured.elapsedNanos(), allocated,
+                gcCount() - gcCount, gcMillis() - gcMillis);
+    }
+
+    private record LoopResult(long operations, int nextInvocation, long elapsedNanos) {}
+
+    private LoopResult loop(Benchmark benchmark, int invocation, long durationNanos) {
+        long result = 0L;
+        long operations = 0L;
+        int batch = 1;
+
+        long start = System.nanoTime();
+        long elapsed = 0L;
+
+        while (elapsed < durationNanos) {
+            long batchStart = System.nanoTime();
+
+            for (int i = 0; i < batch; i++) {
+                result += benchmark.invoke(invocation++);
+            }
+            operations += batch;
+
+            long now = System.nanoTime();
+            elapsed = now - start;
+
+            if (now - batchStart < MIN_BATCH_NANOS && batch < (1 << 20)) {
+                batch <<= 1;
+            }
+        }
+        sink += result;
+
+        return new LoopResult(operations, invocation, elapsed);
+    }
+
+    private static long gcCount() {
+        long count = 0L;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0L, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0L;
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0L, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
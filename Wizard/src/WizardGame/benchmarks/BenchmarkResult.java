@@ -0,0 +1,30 @@
+package WizardGame.benchmarks;
+
+public record BenchmarkResult(String name, long operations, long elapsedNanos, long allocatedBytes,
+                              long gcCount, long gcMillis) {
+
+    public double opsPerSecond() {
+        return operations * 1e9 / elapsedNanos;
+    }
+
+    public double nanosPerOp() {
+        return (double) elapsedNanos / operations;
+    }
+
+    public double bytesPerOp() {
+        return (double) allocatedBytes / operations;
+    }
+
+    /**
+     * Same as JMH's {@code gc.alloc.rate}, in MB/s.
+     */
+    public double allocationRate() {
+        return allocatedBytes * 1e9 / elapsedNanos / (1024 * 1024);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-36s %14.1f ops/s %14.1f ns/op %12.1f B/op %10.1f MB/s  gc: %4d (%d ms)",
+                name, opsPerSecond(), nanosPerOp(), bytesPerOp(), allocationRate(), gcCount, gcMillis);
+    }
+}
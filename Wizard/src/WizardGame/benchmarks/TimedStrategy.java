@@ -0,0 +1,107 @@
+package WizardGame.benchmarks;
+
+import WizardGame.DTOs.BeatCardContextDTO;
+import WizardGame.DTOs.CreateTrickBidsContextDTO;
+import WizardGame.DTOs.DropCardContextDTO;
+import WizardGame.models.Card;
+import WizardGame.strategies.GameStrategy;
+import WizardGame.strategies.SeededStrategy;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Decorator that measures time and allocation of every decision of the wrapped strategy.
+ * Counters are shared by all instances and are not thread-safe; use it from one thread only.
+ */
+public class TimedStrategy implements GameStrategy, SeededStrategy {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public enum Decision {
+        CREATE_TRICK_BIDS,
+        DROP_CARD,
+        BEAT_CARD
+    }
+
+    private static final long[] CALLS = new long[Decision.values().length];
+    private static final long[] NANOS = new long[Decision.values().length];
+    private static final long[] BYTES = new long[Decision.values().length];
+
+    private final GameStrategy gameStrategy;
+
+    public TimedStrategy(GameStrategy gameStrategy) {
+        this.gameStrategy = gameStrategy;
+    }
+
+    public static void reset() {
+        for (int i = 0; i < CALLS.length; i++) {
+            CALLS[i] = 0;
+            NANOS[i] = 0;
+            BYTES[i] = 0;
+        }
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+
+        for (Decision decision : Decision.values()) {
+            long calls = Math.max(1, CALLS[decision.ordinal()]);
+
+            report.append(String.format("    %-18s %10d calls %12.1f ns/call %10.1f B/call%n", decision,
+                    CALLS[decision.ordinal()], (double) NANOS[decision.ordinal()] / calls,
+                    (double) BYTES[decision.ordinal()] / calls));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public Card dropCard(DropCardContextDTO dropCardContextDTO) {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        Card card = gameStrategy.dropCard(dropCardContextDTO);
+
+        record(Decision.DROP_CARD, start, bytes);
+        return card;
+    }
+
+    @Override
+    public Card beatCard(BeatCardContextDTO beatCardContextDTO) {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        Card card = gameStrategy.beatCard(beatCardContextDTO);
+
+        record(Decision.BEAT_CARD, start, bytes);
+        return card;
+    }
+
+    @Override
+    public Integer createTrickBids(CreateTrickBidsContextDTO createTrickBidsContextDTO) {
+        long bytes = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        Integer trickBid = gameStrategy.createTrickBids(createTrickBidsContextDTO);
+
+        record(Decision.CREATE_TRICK_BIDS, start, bytes);
+        return trickBid;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        if (gameStrategy instanceof SeededStrategy seededStrategy) {
+            seededStrategy.setSeed(seed);
+        }
+    }
+
+    @Override
+    public String getStrategyName() {
+        return gameStrategy.getStrategyName();
+    }
+
+    private static void record(Decision decision, long start, long bytes) {
+        NANOS[decision.ordinal()] += System.nanoTime() - start;
+        BYTES[decision.ordinal()] += THREADS.getCurrentThreadAllocatedBytes() - bytes;
+        CALLS[decision.ordinal()]++;
+    }
+}
@@ -0,0 +1,444 @@
+package WizardGame.benchmarks;
+
+import WizardGame.DTOs.AbstractProbabilityDTO;
+import WizardGame.DTOs.DroppedCardsInTrickDTO;
+import WizardGame.DTOs.ProbabilityCalculatorDTO;
+import WizardGame.contexts.GameContext;
+import WizardGame.enums.CardType;
+import WizardGame.enums.HistoryMode;
+import WizardGame.enums.ProbabilityFormat;
+import WizardGame.enums.ProbabilityModel;
+import WizardGame.handlers.*;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+import WizardGame.models.GameBot;
+import WizardGame.strategies.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks of full games, dealing, trick resolution, the double-dummy solver, endgame tablebase lookups, the
+ * probability entry points and every bundled strategy.
+ * Usage: {@code WizardBenchmarks [name filter] [warmup seconds] [measurement seconds]}.
+ * <p>
+ * Inputs are fixed: games cycle through {@link #CORPUS_GAMES} seeds and the kernels through pre-generated
+ * corpora, so numbers of two engine builds can be compared directly. {@value #MODEL_ERROR} reports how far the
+ * approximate probability model is from the exact one on those corpora.
+ */
+public class WizardBenchmarks {
+    private static final long SEED = 20240101L;
+    private static final int CORPUS_SIZE = 1024;
+    private static final int CORPUS_GAMES = 64;
+    private static final String MODEL_ERROR = "probability.modelError";
+    private static final String SOLVER_PROFILE = "solver.doubleDummy.profile";
+    private static final int PROFILE_DEALS = 64;
+    // benchmarks with this suffix run with a ProbabilityCalculator cache installed
+    private static final String CACHED = ".cached";
+    private static final int CACHE_CAPACITY = 1 << 16;
+    // the largest tablebase of 4 seats that generates in seconds
+    private static final int TABLEBASE_SEATS = 4;
+    private static final int TABLEBASE_CARDS = 2;
+
+    // opponents of full games and seats 1..3 of the strategy benchmarks
+    private static final List<Supplier<? extends GameStrategy>> ROSTER = List.of(ChatGPTV4::new, MetaCrusherV1::new,
+            AnalystV1_1::new, CounterAnalystV3::new, AdaptiveMasterV1::new, ChatGPTV5::new);
+
+    // Me is interactive; ChatGPTStrategy plays cards that are not allowed and fails with IllegalMoveException
+    private static final List<Supplier<? extends GameStrategy>> STRATEGIES = List.of(AnalystV1::new, AnalystV1_1::new,
+            AnalystV1_2::new, AdaptiveMasterV1::new, ChatGPTV2Strategy::new, ChatGPTV3::new,
+            ChatGPTV4::new, ChatGPTV5::new, CounterAnalystV3::new, DefaultStrategy::new, Hybrid::new,
+            MetaCrusherV1::new, Version1Strategy::new, Version2Strategy::new, IsmctsStrategy::new);
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        int warmupSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int measurementSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        BenchmarkHarness harness = new BenchmarkHarness(Duration.ofSeconds(warmupSeconds),
+                Duration.ofSeconds(measurementSeconds));
+
+        PrintStream out = System.out;
+        // several strategies print their reasoning, which would flood the report
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        try {
+            if (MODEL_ERROR.contains(filter)) {
+                out.print(modelErrorReport());
+            }
+            if (SOLVER_PROFILE.contains(filter)) {
+                out.print(solverProfile());
+            }
+
+            for (Map.Entry<String, Benchmark> benchmark : createBenchmarks().entrySet()) {
+                if (!benchmark.getKey().contains(filter)) {
+                    continue;
+                }
+                boolean cached = benchmark.getKey().endsWith(CACHED);
+
+                if (cached) {
+                    ProbabilityCalculator.setCache(new ProbabilityCache(CACHE_CAPACITY));
+                }
+
+                try {
+                    out.println(harness.run(benchmark.getKey(), benchmark.getValue()));
+
+                    if (benchmark.getKey().startsWith("strategy.")) {
+                        out.print(TimedStrategy.report());
+                    }
+                    if (cached) {
+                        out.println("    " + ProbabilityCalculator.getCache());
+                    }
+                } finally {
+                    ProbabilityCalculator.setCache(null);
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static Map<String, Benchmark> createBenchmarks() {
+        Map<String, Benchmark> benchmarks = new LinkedHashMap<>();
+
+        for (int botsAmount = 2; botsAmount <= 6; botsAmount++) {
+            benchmarks.put("game.bots=" + botsAmount, fullGame(ROSTER.subList(0, botsAmount)));
+        }
+        benchmarks.put("deal.bots=4", deal(4, 14));
+        benchmarks.put("trick.resolve.bots=4", resolveTrick(4));
+
+        for (int cardsAmount = 6; cardsAmount <= 10; cardsAmount += 2) {
+            benchmarks.put("solver.doubleDummy.bots=4.cards=" + cardsAmount, doubleDummy(4, cardsAmount));
+        }
+        String tablebaseSuffix = ".bots=" + TABLEBASE_SEATS + ".cards=" + TABLEBASE_CARDS;
+        benchmarks.put("tablebase.probe" + tablebaseSuffix, tablebaseProbe(false));
+        benchmarks.put("tablebase.probe.inTrick" + tablebaseSuffix, tablebaseProbe(true));
+
+        ProbabilityCalculatorDTO[] probabilityCorpus = createProbabilityCorpus();
+        AbstractProbabilityDTO[] abstractCorpus = createAbstractProbabilityCorpus(probabilityCorpus);
+        ProbabilityCalculatorDTO[] unseenCorpus = createUnseenProbabilityCorpus(probabilityCorpus);
+
+        benchmarks.put("probability.toBeat.total", invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateProbabilityToBeat(probabilityCorpus[invocation % CORPUS_SIZE],
+                        ProbabilityFormat.TOTAL)));
+        benchmarks.put("probability.toBeat.relative", invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateProbabilityToBeat(probabilityCorpus[invocation % CORPUS_SIZE],
+                        ProbabilityFormat.RELATIVE)));
+        benchmarks.put("probability.toBeat.unseen", invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateProbabilityToBeat(unseenCorpus[invocation % CORPUS_SIZE],
+                        ProbabilityFormat.RELATIVE)));
+        benchmarks.put("probability.toBeat.exact", invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateProbabilityToBeat(probabilityCorpus[invocation % CORPUS_SIZE],
+                        ProbabilityFormat.RELATIVE, ProbabilityModel.EXACT)));
+        benchmarks.put("probability.abstract", invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateAbstractProbability(abstractCorpus[invocation % CORPUS_SIZE])));
+        benchmarks.put("probability.toBeat.relative" + CACHED, invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateProbabilityToBeat(probabilityCorpus[invocation % CORPUS_SIZE],
+                        ProbabilityFormat.RELATIVE)));
+        benchmarks.put("probability.abstract" + CACHED, invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateAbstractProbability(abstractCorpus[invocation % CORPUS_SIZE])));
+        benchmarks.put("probability.abstract.exact", invocation -> Double.doubleToRawLongBits(
+                ProbabilityCalculator.calculateAbstractProbability(abstractCorpus[invocation % CORPUS_SIZE],
+                        ProbabilityModel.EXACT)));
+        benchmarks.put("probability.evaluateHand", invocation -> {
+            AbstractProbabilityDTO dto = abstractCorpus[invocation % CORPUS_SIZE];
+
+            return ProbabilityCalculator.evaluateHand(dto.ownCards(), dto.trumpCard(), null,
+                    dto.botCardsNumberAtTrickStart(), dto.botsNumber()).length;
+        });
+
+        for (Supplier<? extends GameStrategy> strategy : STRATEGIES) {
+            benchmarks.put("strategy." + strategy.get().getStrategyName(), strategyDecisions(strategy));
+        }
+        // the only bundled strategy that asks ProbabilityCalculator
+        benchmarks.put("strategy.AnalystV1_2" + CACHED, strategyDecisions(AnalystV1_2::new));
+        return benchmarks;
+    }
+
+    /**
+     * Difference of the approximate probabilities to the exact ones on the probability corpora. The approximate
+     * model is the unchanged original, so the toBeat error mostly measures its wrong divisor in the no-suit term,
+     * see {@link ProbabilityModel}, rather than drawing with replacement: with the unseen card count as divisor
+     * the mean error drops from about 0.048 to 0.016 and the maximum from 3.8 to 0.87.
+     */
+    private static String modelErrorReport() {
+        ProbabilityCalculatorDTO[] probabilityCorpus = createProbabilityCorpus();
+        AbstractProbabilityDTO[] abstractCorpus = createAbstractProbabilityCorpus(probabilityCorpus);
+
+        double[] toBeatError = new double[2];
+        double[] abstractError = new double[2];
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            addError(toBeatError,
+                    ProbabilityCalculator.calculateProbabilityToBeat(probabilityCorpus[i], ProbabilityFormat.RELATIVE),
+                    ProbabilityCalculator.calculateProbabilityToBeat(probabilityCorpus[i], ProbabilityFormat.RELATIVE,
+                            ProbabilityModel.EXACT));
+            addError(abstractError,
+                    ProbabilityCalculator.calculateAbstractProbability(abstractCorpus[i]),
+                    ProbabilityCalculator.calculateAbstractProbability(abstractCorpus[i], ProbabilityModel.EXACT));
+        }
+
+        return String.format("%s.toBeat    mean abs error %.5f, max %.5f%n%s.abstract  mean abs error %.5f, max %.5f%n",
+                MODEL_ERROR, toBeatError[0] / CORPUS_SIZE, toBeatError[1],
+                MODEL_ERROR, abstractError[0] / CORPUS_SIZE, abstractError[1]);
+    }
+
+    /**
+     * Times the first {@value #PROFILE_DEALS} deals of the 10-card doubleDummy benchmark one by one, after as many
+     * 8-card deals to warm up: its mean hides that most deals solve in milliseconds and a few take far longer.
+     */
+    private static String solverProfile() {
+        Benchmark warmup = doubleDummy(4, 8);
+        Benchmark benchmark = doubleDummy(4, 10);
+        long[] nanos = new long[PROFILE_DEALS];
+        long total = 0L;
+
+        for (int i = 0; i < PROFILE_DEALS; i++) {
+            warmup.invoke(i);
+        }
+        for (int i = 0; i < PROFILE_DEALS; i++) {
+            long start = System.nanoTime();
+            benchmark.invoke(i);
+            nanos[i] = System.nanoTime() - start;
+            total += nanos[i];
+        }
+        Arrays.sort(nanos);
+
+        return String.format("%s.bots=4.cards=10  %d deals: median %.1f ms, 75th percentile %.1f ms, "
+                        + "90th percentile %.1f ms, max %.1f ms, mean %.1f ms%n", SOLVER_PROFILE, PROFILE_DEALS,
+                nanos[PROFILE_DEALS / 2] / 1e6, nanos[PROFILE_DEALS * 3 / 4] / 1e6, nanos[PROFILE_DEALS * 9 / 10] / 1e6,
+                nanos[PROFILE_DEALS - 1] / 1e6, total / 1e6 / PROFILE_DEALS);
+    }
+
+    // error[0] accumulates the absolute error, error[1] keeps the maximum
+    private static void addError(double[] error, double approximate, double exact) {
+        double difference = Math.abs(approximate - exact);
+
+        error[0] += difference;
+        error[1] = Math.max(error[1], difference);
+    }
+
+    private static Benchmark fullGame(List<Supplier<? extends GameStrategy>> strategies) {
+        int totalRounds = CardRegistry.DECK_SIZE / strategies.size();
+
+        return invocation -> {
+            List<GameBot> gameBots = new ArrayList<>(strategies.size());
+
+            for (Supplier<? extends GameStrategy> strategy : strategies) {
+                gameBots.add(new GameBot(strategy.get(), "Bot " + gameBots.size()));
+            }
+
+            GameContext gameContext = new GameContext(gameBots, totalRounds,
+                    SeedSequence.forGame(SEED, invocation % CORPUS_GAMES), HistoryMode.RECENT);
+
+            return new GameHandler(gameContext).start().gameContext().getBotScore(0);
+        };
+    }
+
+    /**
+     * Plays seeded four-bot games with the measured strategy in seat 0; the per-decision split is
+     * collected by {@link TimedStrategy}.
+     */
+    private static Benchmark strategyDecisions(Supplier<? extends GameStrategy> strategy) {
+        List<Supplier<? extends GameStrategy>> strategies = new ArrayList<>();
+        strategies.add(() -> new TimedStrategy(strategy.get()));
+        strategies.addAll(ROSTER.subList(0, 3));
+
+        Benchmark game = fullGame(strategies);
+
+        return new Benchmark() {
+            @Override
+            public long invoke(int invocation) {
+                return game.invoke(invocation);
+            }
+
+            @Override
+            public void afterWarmup() {
+                TimedStrategy.reset();
+            }
+        };
+    }
+
+    private static Benchmark deal(int botsAmount, int cardsAmount) {
+        CardDealer cardDealer = new CardDealer(new SplittableRandom(SEED));
+
+        return invocation -> {
+            cardDealer.collectCards();
+            long hands = 0L;
+
+            for (int seat = 0; seat < botsAmount; seat++) {
+                hands ^= cardDealer.dealHand(cardsAmount);
+            }
+            return hands ^ cardDealer.drawCard().getOrdinal();
+        };
+    }
+
+    private static Benchmark resolveTrick(int botsAmount) {
+        CardDealer cardDealer = new CardDealer(new SplittableRandom(SEED));
+        Card[][] tricks = new Card[CORPUS_SIZE][botsAmount];
+        CardType[] trumpTypes = new CardType[CORPUS_SIZE];
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            cardDealer.collectCards();
+
+            for (int seat = 0; seat < botsAmount; seat++) {
+                tricks[i][seat] = cardDealer.drawCard();
+            }
+            trumpTypes[i] = cardDealer.drawCard().getType();
+        }
+
+        return invocation -> {
+            Card[] trick = tricks[invocation % CORPUS_SIZE];
+            CardType trumpType = trumpTypes[invocation % CORPUS_SIZE];
+            Card winningCard = trick[0];
+
+            for (int seat = 1; seat < trick.length; seat++) {
+                winningCard = TrickRules.winningCard(trick[seat], winningCard, trumpType);
+            }
+            return winningCard.getOrdinal();
+        };
+    }
+
+    /**
+     * Solves a new seeded deal for one seat on every invocation, the seats taking turns; repeated deals would
+     * only measure table hits. The solver keeps its table between deals, as a search strategy would.
+     */
+    private static Benchmark doubleDummy(int botsAmount, int cardsAmount) {
+        CardDealer cardDealer = new CardDealer();
+        DoubleDummySolver solver = new DoubleDummySolver();
+        long[] hands = new long[botsAmount];
+
+        return invocation -> {
+            cardDealer.reset(SeedSequence.forGame(SEED, invocation));
+
+            for (int seat = 0; seat < botsAmount; seat++) {
+                hands[seat] = cardDealer.dealHand(cardsAmount);
+            }
+            CardType trumpType = cardDealer.drawCard().getType();
+
+            return solver.solve(hands, trumpType, 0, new int[0], invocation % botsAmount);
+        };
+    }
+
+    /**
+     * Looks up seeded positions for every seat and need in turn: at a trick boundary, one probe, or after the lead
+     * of seat 0, where the rest of the trick is expanded into up to 8 probes. Hands of more than
+     * {@value #TABLEBASE_CARDS} cards are not covered with {@value #TABLEBASE_SEATS} seats, they are left to the
+     * solver benchmarks.
+     */
+    private static Benchmark tablebaseProbe(boolean inTrick) {
+        CardDealer cardDealer = new CardDealer();
+        long[][] hands = new long[CORPUS_SIZE][TABLEBASE_SEATS];
+        CardType[] trumpTypes = new CardType[CORPUS_SIZE];
+        int[][] tricks = new int[CORPUS_SIZE][];
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            cardDealer.reset(SeedSequence.forGame(SEED, i));
+
+            for (int seat = 0; seat < TABLEBASE_SEATS; seat++) {
+                hands[i][seat] = cardDealer.dealHand(TABLEBASE_CARDS);
+            }
+            trumpTypes[i] = cardDealer.drawCard().getType();
+            tricks[i] = new int[0];
+
+            if (inTrick) {
+                tricks[i] = new int[]{Long.numberOfTrailingZeros(hands[i][0])};
+                hands[i][0] &= ~(1L << tricks[i][0]);
+            }
+        }
+
+        return invocation -> {
+            int i = invocation % CORPUS_SIZE;
+
+            return TablebaseHolder.TABLEBASE.miss(hands[i], trumpTypes[i], 0, tricks[i],
+                    invocation % TABLEBASE_SEATS, invocation % (TABLEBASE_CARDS + 1));
+        };
+    }
+
+    // generated on first use only, which takes seconds
+    private static final class TablebaseHolder {
+        private static final EndgameTablebase TABLEBASE = generateTablebase();
+
+        private static EndgameTablebase generateTablebase() {
+            try {
+                Path path = Files.createTempFile("endgame", ".tb");
+                path.toFile().deleteOnExit();
+
+                EndgameTablebaseGenerator generator = new EndgameTablebaseGenerator(TABLEBASE_SEATS, TABLEBASE_CARDS);
+                generator.generate();
+                generator.write(path);
+                return EndgameTablebase.open(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static ProbabilityCalculatorDTO[] createProbabilityCorpus() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        CardDealer cardDealer = new CardDealer(random.split());
+        ProbabilityCalculatorDTO[] corpus = new ProbabilityCalculatorDTO[CORPUS_SIZE];
+
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            cardDealer.collectCards();
+
+            int botsNumber = 2 + random.nextInt(5);
+            int cardsAtTrickStart = 1 + random.nextInt(CardRegistry.DECK_SIZE / botsNumber - 1);
+
+            CardSet ownCards = CardSet.of(cardDealer.dealHand(cardsAtTrickStart));
+            Card trumpCard = cardDealer.drawCard();
+            CardSet usedCards = CardSet.of(cardDealer.dealHand(
+                    random.nextInt(Math.min(20, cardDealer.getStockSize() - botsNumber) + 1)));
+
+            boolean isFirstToDrop = random.nextBoolean();
+            int droppedAmount = isFirstToDrop ? 0 : 1 + random.nextInt(botsNumber - 1);
+
+            Map<String, DroppedCardsInTrickDTO> droppedCards = new LinkedHashMap<>();
+
+            for (int bot = 1; bot < botsNumber; bot++) {
+                droppedCards.put("Bot " + bot, bot <= droppedAmount
+                        ? new DroppedCardsInTrickDTO(cardDealer.drawCard(), bot == 1)
+                        : new DroppedCardsInTrickDTO());
+            }
+
+            Card card = new ArrayList<>(ownCards).get(random.nextInt(ownCards.size()));
+
+            corpus[i] = new ProbabilityCalculatorDTO(card, trumpCard, usedCards, ownCards, droppedCards,
+                    cardsAtTrickStart, botsNumber, isFirstToDrop);
+        }
+        return corpus;
+    }
+
+    // same queries with the unseen cards precomputed, as the engine hands them to strategies
+    private static ProbabilityCalculatorDTO[] createUnseenProbabilityCorpus(ProbabilityCalculatorDTO[] probabilityCorpus) {
+        ProbabilityCalculatorDTO[] corpus = new ProbabilityCalculatorDTO[probabilityCorpus.length];
+
+        for (int i = 0; i < corpus.length; i++) {
+            ProbabilityCalculatorDTO dto = probabilityCorpus[i];
+
+            corpus[i] = new ProbabilityCalculatorDTO(dto.card(), dto.trumpCard(), dto.usedCards(), dto.ownCards(),
+                    dto.droppedCardsInTrickDTO(), dto.botCardsNumberAtTrickStart(), dto.botsNumber(),
+                    dto.isFirstToDrop(), CardManager.unseenCards(dto.ownCards(), dto.trumpCard(), dto.usedCards()));
+        }
+        return corpus;
+    }
+
+    private static AbstractProbabilityDTO[] createAbstractProbabilityCorpus(ProbabilityCalculatorDTO[] probabilityCorpus) {
+        AbstractProbabilityDTO[] corpus = new AbstractProbabilityDTO[probabilityCorpus.length];
+
+        for (int i = 0; i < corpus.length; i++) {
+            ProbabilityCalculatorDTO dto = probabilityCorpus[i];
+
+            corpus[i] = new AbstractProbabilityDTO(dto.card(), dto.trumpCard(), dto.ownCards(),
+                    dto.botCardsNumberAtTrickStart(), dto.botsNumber());
+        }
+        return corpus;
+    }
+}
@@ -1,80 +1,242 @@
-package WizardGame.contexts;
-
-import WizardGame.handlers.GameManager;
-import WizardGame.handlers.IDGenerator;
-import WizardGame.models.Card;
-import WizardGame.models.GameBot;
-
-import java.util.*;
-
-public class GameContext {
-    private final String gameId;
-
-    private final Set<GameBot> gameBots;
-  private final int totalRoundAmount;
-    private final Set<Card> allCards;
-    private int currentRoundNumber;
-
-  private final Stack<RoundContext> roundContexts = new Stack<>();
- private Map<String, Integer> botScores = new HashMap<>();
-
-    public GameContext(Set<GameBot> gameBots, int totalRoundsAmount){
-        this.gameBots = gameBots;
-        this.totalRoundAmount = totalRoundsAmount;
-       gameId = IDGenerator.getNextGameId();
-       allCards = GameManager.getAllPossibleCards();
-    }
-
-
-public void updateCurrentRoundContext(RoundContext newRoundContext){
-        roundContexts.pop();
-        roundContexts.push(newRoundContext);
-}
-
-public void updateBotScores(Map<String, Integer> botScores){
-        this.botScores = botScores;
-}
-
-    public Set<GameBot> getGameBots(){
-        return gameBots;
-    }
-
-    public int getCurrentRoundNumber(){
-        return currentRoundNumber;
-    }
-
-    public int getTotalRoundAmount(){
-        return totalRoundAmount;
-    }
-    public String getPlayerIdMove(){
-        return roundContexts.peek().lastWinnerDTO().getLastWinnerId();
-    }
-    public Set<Card> getAllCards(){
-        return allCards;
-    }
-
-    public void setNewRoundContext(RoundContext roundContext){
-        roundContexts.push(roundContext);
-    }
-    public RoundContext getCurrentRoundContext(){
-        return roundContexts.peek();
-    }
-
-    public Map<String, Integer> getBotScores() {
-        return botScores;
-    }
-
-    public Stack<RoundContext> getRoundContexts() {
-        return roundContexts;
-    }
-    public int getBotAmount(){
-        return gameBots.size();
-    }
-    public void incrementCurrentRoundNumber(){
-        currentRoundNumber++;
-    }
-    public void setCurrentRoundNumber(int currentRoundNumber){
-        this.currentRoundNumber = currentRoundNumber;
-    }
-
-}
+package WizardGame.contexts;
+
+import WizardGame.DTOs.LastWinnerDTO;
+import WizardGame.enums.HistoryMode;
+import WizardGame.enums.LastWinnerExists;
+import WizardGame.handlers.GameManager;
+import WizardGame.handlers.IDGenerator;
+import WizardGame.handlers.SeedSequence;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+import WizardGame.models.GameBot;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * State of one game. A context can be reset and replayed with the same bots; finished rounds are then recycled
+ * instead of reallocated, see {@link #reset(long)} and {@link #obtainRoundContext}.
+ */
+public class GameContext {
+    // the round being played and the one before it, see RoundHistory#previous()
+    public static final int MIN_RECENT_ROUNDS = 2;
+
+    private String gameId;
+
+    private final Set<GameBot> gameBots;
+  private final int totalRoundAmount;
+    private final Set<Card> allCards;
+    private int currentRoundNumber;
+    private long seed;
+    private final HistoryMode historyMode;
+    private final int minRecentRounds;
+
+  private final RoundHistory roundContexts;
+  private final ArrayDeque<RoundContext> freeRoundContexts = new ArrayDeque<>();
+  // shared by all rounds of a game, the winner of the last trick leads the next round
+  private final LastWinnerDTO lastWinnerDTO = new LastWinnerDTO();
+ // seat-indexed, seats are handed out in the given order
+ private final GameBot[] seats;
+ private final String[] botIds;
+ private final int[] botScores;
+ // rotations[startingSeat][k] is the seat playing k-th in a trick opened by startingSeat
+ private final int[][] rotations;
+ private final Map<String, Integer> botScoresView;
+
+    public GameContext(Set<GameBot> gameBots, int totalRoundsAmount){
+        this(new ArrayList<>(gameBots), totalRoundsAmount, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * @param seatOrder bots in seat order; together with the seed this makes the game reproducible
+     * @param seed game seed, see {@link SeedSequence#forGame(long, long)}
+     */
+    public GameContext(List<GameBot> seatOrder, int totalRoundsAmount, long seed){
+        this(seatOrder, totalRoundsAmount, seed, HistoryMode.FULL);
+    }
+
+    /**
+     * @param historyMode {@link HistoryMode#RECENT} drops finished rounds once no seated strategy reads them, for
+     *                    batch runs that collect statistics through a GameEventListener
+     */
+    public GameContext(List<GameBot> seatOrder, int totalRoundsAmount, long seed, HistoryMode historyMode){
+        this(seatOrder, totalRoundsAmount, seed, historyMode, MIN_RECENT_ROUNDS);
+    }
+
+    /**
+     * @param recentRounds rounds a {@link HistoryMode#RECENT} history keeps at least, the current one included;
+     *                     raised to what the seated strategies declare as
+     *                     {@link WizardGame.strategies.RoundHistoryReader}
+     */
+    public GameContext(List<GameBot> seatOrder, int totalRoundsAmount, long seed, HistoryMode historyMode,
+                       int recentRounds){
+        this.historyMode = historyMode;
+        this.minRecentRounds = Math.max(MIN_RECENT_ROUNDS, recentRounds);
+        this.gameBots = new LinkedHashSet<>(seatOrder);
+        this.totalRoundAmount = totalRoundsAmount;
+        this.seed = seed;
+       gameId = IDGenerator.getNextGameId();
+       allCards = GameManager.getAllPossibleCards();
+
+       seats = seatOrder.toArray(new GameBot[0]);
+       botIds = new String[seats.length];
+
+       for(int seat = 0; seat < seats.length; seat++){
+           seats[seat].setSeat(seat);
+           botIds[seat] = seats[seat].getGameBotId();
+       }
+
+       botScores = new int[seats.length];
+       rotations = new int[seats.length][seats.length];
+
+       for(int startingSeat = 0; startingSeat < seats.length; startingSeat++){
+           for(int k = 0; k < seats.length; k++){
+               rotations[startingSeat][k] = (startingSeat + k) % seats.length;
+           }
+       }
+       botScoresView = SeatMap.ofInts(botIds, botScores);
+
+       roundContexts = historyMode == HistoryMode.RECENT
+               ? new RoundHistory(recentRounds(), true)
+               : new RoundHistory(totalRoundsAmount, false);
+    }
+
+    /**
+     * Prepares the context for another game with the same seats: scores are zeroed and all rounds
+     * go back to the pool.
+     */
+    public void reset(long seed){
+        this.seed = seed;
+        gameId = IDGenerator.getNextGameId();
+        currentRoundNumber = 0;
+        Arrays.fill(botScores, 0);
+        lastWinnerDTO.setLastWinnerExists(LastWinnerExists.NO);
+
+        RoundContext roundContext;
+
+        while((roundContext = roundContexts.pollOldest()) != null){
+            freeRoundContexts.push(roundContext);
+        }
+        // the seats may hold new strategies
+        if(historyMode == HistoryMode.RECENT){
+            roundContexts.ensureCapacity(recentRounds());
+        }
+    }
+
+    private int recentRounds(){
+        int recentRounds = minRecentRounds;
+
+        for(GameBot seat : seats){
+            recentRounds = Math.max(recentRounds, 1 + seat.getFinishedRoundsRead());
+        }
+        return recentRounds;
+    }
+
+    /**
+     * @return a recycled round if one is free, otherwise a new one; push it with {@link #setNewRoundContext}
+     */
+    public RoundContext obtainRoundContext(int number, Card trumpCard, String dealerId){
+        RoundContext roundContext = freeRoundContexts.poll();
+
+        if(roundContext == null){
+            return new RoundContext(number, trumpCard, botIds, new CardSet(), lastWinnerDTO, dealerId);
+        }
+        roundContext.reset(number, trumpCard, lastWinnerDTO, dealerId);
+        return roundContext;
+    }
+
+public void updateCurrentRoundContext(RoundContext newRoundContext){
+        roundContexts.replaceCurrent(newRoundContext);
+}
+
+public void updateBotScores(Map<String, Integer> botScores){
+        for(int seat = 0; seat < seats.length; seat++){
+            this.botScores[seat] = botScores.getOrDefault(botIds[seat], 0);
+        }
+}
+
+public void addBotScore(int seat, int score){
+        botScores[seat] += score;
+}
+
+    public int getBotScore(int seat){
+        return botScores[seat];
+    }
+
+    public GameBot getSeat(int seat){
+        return seats[seat];
+    }
+
+    /**
+     * @return seats in clockwise play order starting with {@code startingSeat}; shared, do not modify
+     */
+    public int[] getRotation(int startingSeat){
+        return rotations[startingSeat];
+    }
+
+    public GameBot[] getSeats(){
+        return seats;
+    }
+
+    public String[] getBotIds(){
+        return botIds;
+    }
+
+    public Set<GameBot> getGameBots(){
+        return gameBots;
+    }
+
+    public long getSeed(){
+        return seed;
+    }
+
+    public int getCurrentRoundNumber(){
+        return currentRoundNumber;
+    }
+
+    public int getTotalRoundAmount(){
+        return totalRoundAmount;
+    }
+    public String getPlayerIdMove(){
+        return roundContexts.current().lastWinnerDTO().getLastWinnerId();
+    }
+    public LastWinnerDTO getLastWinnerDTO(){
+        return lastWinnerDTO;
+    }
+
+    public Set<Card> getAllCards(){
+        return allCards;
+    }
+
+    public void setNewRoundContext(RoundContext roundContext){
+        RoundContext evicted = roundContexts.push(roundContext);
+
+        if(evicted != null){
+            freeRoundContexts.push(evicted);
+        }
+    }
+    public RoundContext getCurrentRoundContext(){
+        return roundContexts.current();
+    }
+
+    /**
+     * Read-only view over the seat-indexed scores.
+     */
+    public Map<String, Integer> getBotScores() {
+        return botScoresView;
+    }
+
+    public RoundHistory getRoundContexts() {
+        return roundContexts;
+    }
+    public int getBotAmount(){
+        return seats.length;
+    }
+    public void incrementCurrentRoundNumber(){
+        currentRoundNumber++;
+    }
+    public void setCurrentRoundNumber(int currentRoundNumber){
+        this.currentRoundNumber = currentRoundNumber;
+    }
+
+}
@@ -1,20 +1,152 @@
-package WizardGame.contexts;
-
-import WizardGame.DTOs.LastWinnerDTO;
-import WizardGame.DTOs.TrickBidDTO;
-import WizardGame.models.Card;
-
-import java.util.Map;
-import java.util.Set;
-
-public record RoundContext(int number,
-                           Card trumpCard,
-                           Map<String, TrickBidDTO> fullTrickBids,
-                           Map<String, Integer> fullTrickWins,
-                           Set<Card> usedCards,
-                           LastWinnerDTO lastWinnerDTO,
-                           String dealerId) {
-public void addUsedCard(Card usedCard){
-    usedCards.add(usedCard);
-}
-}
+package WizardGame.contexts;
+
+import WizardGame.DTOs.LastWinnerDTO;
+import WizardGame.DTOs.TrickBidDTO;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+public class RoundContext {
+    public static final int NO_TRICK_BID = Integer.MIN_VALUE;
+
+    private int number;
+    private Card trumpCard;
+    private final Set<Card> usedCards;
+    private LastWinnerDTO lastWinnerDTO;
+    private String dealerId;
+    private final String[] botIds;
+
+    // indexed by seat, see GameBot.getSeat()
+    private final int[] trickBids;
+    private final int[] trickWins;
+
+    private final Map<String, TrickBidDTO> fullTrickBids;
+    private final Map<String, Integer> fullTrickWins;
+
+    public RoundContext(int number, Card trumpCard, String[] botIds, Set<Card> usedCards,
+                        LastWinnerDTO lastWinnerDTO, String dealerId) {
+        this.number = number;
+        this.trumpCard = trumpCard;
+        this.usedCards = usedCards;
+        this.lastWinnerDTO = lastWinnerDTO;
+        this.dealerId = dealerId;
+        this.botIds = botIds;
+
+        trickBids = new int[botIds.length];
+        trickWins = new int[botIds.length];
+        Arrays.fill(trickBids, NO_TRICK_BID);
+
+        fullTrickBids = new SeatMap<>(botIds) {
+            @Override
+            boolean hasValue(int seat) {
+                return trickBids[seat] != NO_TRICK_BID;
+            }
+
+            @Override
+            TrickBidDTO valueAt(int seat) {
+                return TrickBidDTO.of(trickBids[seat]);
+            }
+        };
+        fullTrickWins = SeatMap.ofInts(botIds, trickWins);
+    }
+
+    /**
+     * Clears bids, wins and used cards for another round; the map views stay valid.
+     * Used by {@link GameContext} to recycle rounds that are no longer kept.
+     */
+    public void reset(int number, Card trumpCard, LastWinnerDTO lastWinnerDTO, String dealerId){
+        this.number = number;
+        this.trumpCard = trumpCard;
+        this.lastWinnerDTO = lastWinnerDTO;
+        this.dealerId = dealerId;
+
+        usedCards.clear();
+        Arrays.fill(trickBids, NO_TRICK_BID);
+        Arrays.fill(trickWins, 0);
+    }
+
+    /**
+     * @return a copy that is not recycled by the engine
+     */
+    public RoundContext snapshot(){
+        RoundContext copy = new RoundContext(number, trumpCard, botIds, new CardSet(usedCards),
+                new LastWinnerDTO(lastWinnerDTO.getLastWinnerExists(), lastWinnerDTO.getLastWinnerId()), dealerId);
+
+        System.arraycopy(trickBids, 0, copy.trickBids, 0, trickBids.length);
+        System.arraycopy(trickWins, 0, copy.trickWins, 0, trickWins.length);
+        return copy;
+    }
+
+    public void addUsedCard(Card usedCard){
+        usedCards.add(usedCard);
+    }
+
+    public void setTrickBid(int seat, int trickBid) {
+        trickBids[seat] = trickBid;
+    }
+
+    public boolean hasTrickBid(int seat) {
+        return trickBids[seat] != NO_TRICK_BID;
+    }
+
+    public int getTrickBid(int seat) {
+        return trickBids[seat];
+    }
+
+    public void incrementTrickWins(int seat) {
+        trickWins[seat]++;
+    }
+
+    public int getTrickWins(int seat) {
+        return trickWins[seat];
+    }
+
+    /**
+     * @return the seat of the bot, or -1 if it does not play this round
+     */
+    public int seatOf(String botId) {
+        for (int seat = 0; seat < botIds.length; seat++) {
+            if (botIds[seat].equals(botId)) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    public int number() {
+        return number;
+    }
+
+    public Card trumpCard() {
+        return trumpCard;
+    }
+
+    /**
+     * Read-only view over the seat-indexed bids; only seats that already bid are present.
+     */
+    public Map<String, TrickBidDTO> fullTrickBids() {
+        return fullTrickBids;
+    }
+
+    /**
+     * Read-only view over the seat-indexed trick wins.
+     */
+    public Map<String, Integer> fullTrickWins() {
+        return fullTrickWins;
+    }
+
+    public Set<Card> usedCards() {
+        return usedCards;
+    }
+
+    public LastWinnerDTO lastWinnerDTO() {
+        return lastWinnerDTO;
+    }
+
+    public String dealerId() {
+        return dealerId;
+    }
+}
@@ -0,0 +1,130 @@
+package WizardGame.contexts;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Rounds of a game, oldest first, in a ring buffer. Strategies get it read-only through GameContextDTO;
+ * only {@link GameContext} adds rounds. Not synchronized, every game is played by one thread.
+ * <p>
+ * A bounded history keeps only the last {@code capacity} rounds and hands the evicted one back for reuse.
+ */
+public final class RoundHistory extends AbstractList<RoundContext> implements RandomAccess {
+    private final boolean bounded;
+    private RoundContext[] rounds;
+    private int first;
+    private int size;
+
+    RoundHistory(int capacity, boolean bounded) {
+        this.bounded = bounded;
+        rounds = new RoundContext[Math.max(1, capacity)];
+    }
+
+    @Override
+    public RoundContext get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return rounds[slot(index)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the newest round or null if no round was added yet
+     */
+    public RoundContext current() {
+        return size == 0 ? null : rounds[slot(size - 1)];
+    }
+
+    /**
+     * @return the round before the newest one or null if it is not kept
+     */
+    public RoundContext previous() {
+        return size < 2 ? null : rounds[slot(size - 2)];
+    }
+
+    /**
+     * @return the round with the given number or null if it was not played yet or is no longer kept
+     */
+    public RoundContext getRound(int roundNumber) {
+        if (size == 0) {
+            return null;
+        }
+        int index = size - 1 - (current().number() - roundNumber);
+        return index < 0 || index >= size ? null : rounds[slot(index)];
+    }
+
+    /**
+     * @return a copy holding snapshots of the kept rounds
+     */
+    public RoundHistory snapshot() {
+        RoundHistory copy = new RoundHistory(size, false);
+
+        for (int i = 0; i < size; i++) {
+            copy.push(get(i).snapshot());
+        }
+        return copy;
+    }
+
+    /**
+     * @return the round evicted to make room, or null
+     */
+    RoundContext push(RoundContext roundContext) {
+        RoundContext evicted = null;
+
+        if (size == rounds.length) {
+            if (bounded) {
+                evicted = pollOldest();
+            } else {
+                rounds = Arrays.copyOf(unwrap(), rounds.length * 2);
+                first = 0;
+            }
+        }
+        rounds[slot(size++)] = roundContext;
+        return evicted;
+    }
+
+    /**
+     * Makes room for {@code capacity} rounds, keeping the rounds held.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > rounds.length) {
+            rounds = Arrays.copyOf(unwrap(), capacity);
+            first = 0;
+        }
+    }
+
+    void replaceCurrent(RoundContext roundContext) {
+        rounds[slot(size - 1)] = roundContext;
+    }
+
+    RoundContext pollOldest() {
+        if (size == 0) {
+            return null;
+        }
+        RoundContext oldest = rounds[first];
+        rounds[first] = null;
+        first = (first + 1) % rounds.length;
+        size--;
+        return oldest;
+    }
+
+    private RoundContext[] unwrap() {
+        RoundContext[] ordered = new RoundContext[size];
+
+        for (int i = 0; i < size; i++) {
+            ordered[i] = rounds[slot(i)];
+        }
+        return ordered;
+    }
+
+    private int slot(int index) {
+        int slot = first + index;
+        return slot < rounds.length ? slot : slot - rounds.length;
+    }
+}
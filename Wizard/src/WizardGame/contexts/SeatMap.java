@@ -0,0 +1,112 @@
+package WizardGame.contexts;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@code Map<String, V>} view keyed by bot id over seat-indexed arrays.
+ * Lookups scan the (at most six) seat ids instead of hashing them.
+ */
+abstract class SeatMap<V> extends AbstractMap<String, V> {
+    private final String[] botIds;
+
+    SeatMap(String[] botIds) {
+        this.botIds = botIds;
+    }
+
+    static SeatMap<Integer> ofInts(String[] botIds, int[] values) {
+        return new SeatMap<>(botIds) {
+            @Override
+            boolean hasValue(int seat) {
+                return true;
+            }
+
+            @Override
+            Integer valueAt(int seat) {
+                return values[seat];
+            }
+        };
+    }
+
+    abstract boolean hasValue(int seat);
+
+    abstract V valueAt(int seat);
+
+    int seatOf(Object botId) {
+        for (int seat = 0; seat < botIds.length; seat++) {
+            if (botIds[seat] == botId || botIds[seat].equals(botId)) {
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public V get(Object key) {
+        int seat = seatOf(key);
+        return seat >= 0 && hasValue(seat) ? valueAt(seat) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int seat = seatOf(key);
+        return seat >= 0 && hasValue(seat);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+
+        for (int seat = 0; seat < botIds.length; seat++) {
+            if (hasValue(seat)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<>() {
+                    private int seat = nextSeat(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return seat < botIds.length;
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, V> entry = Map.entry(botIds[seat], valueAt(seat));
+                        seat = nextSeat(seat + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SeatMap.this.size();
+            }
+        };
+    }
+
+    private int nextSeat(int from) {
+        int seat = from;
+
+        while (seat < botIds.length && !hasValue(seat)) {
+            seat++;
+        }
+        return seat;
+    }
+}
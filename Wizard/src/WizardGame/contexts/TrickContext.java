@@ -1,9 +1,62 @@
-package WizardGame.contexts;
-
-import WizardGame.models.Card;
-import WizardGame.models.GameBot;
-
-import java.util.Map;
-
-public record TrickContext (Map<GameBot, Card> responses, Card firstDroppedCard, GameBot startingBot){
-}
+package WizardGame.contexts;
+
+import WizardGame.enums.CardType;
+import WizardGame.handlers.CardRegistry;
+import WizardGame.handlers.TrickRules;
+import WizardGame.models.Card;
+
+/**
+ * Cards of the current trick as ordinals in play order. One instance is reused for every trick of a game.
+ */
+public class TrickContext {
+    private final int[] cards;
+    private int[] rotation;
+    private int playedAmount;
+
+    public TrickContext(int botAmount) {
+        cards = new int[botAmount];
+    }
+
+    /**
+     * @param rotation seats in play order, see {@link GameContext#getRotation(int)}
+     */
+    public void start(int[] rotation) {
+        this.rotation = rotation;
+        playedAmount = 0;
+    }
+
+    public void addCard(Card card) {
+        cards[playedAmount++] = card.getOrdinal();
+    }
+
+    public int getPlayedAmount() {
+        return playedAmount;
+    }
+
+    public Card getCard(int playIndex) {
+        return CardRegistry.getCard(cards[playIndex]);
+    }
+
+    public int getSeat(int playIndex) {
+        return rotation[playIndex];
+    }
+
+    /**
+     * Walks the cards in play order, so of two equal cards (e.g. wizards) the earlier one wins.
+     */
+    public int getWinningPlayIndex(CardType trumpCardType) {
+        int trumpIndex = TrickRules.trumpIndex(trumpCardType);
+        int winningIndex = 0;
+
+        for (int playIndex = 1; playIndex < playedAmount; playIndex++) {
+            if ((TrickRules.beatersOf(cards[winningIndex], trumpIndex) & (1L << cards[playIndex])) != 0) {
+                winningIndex = playIndex;
+            }
+        }
+        return winningIndex;
+    }
+
+    public int getWinnerSeat(CardType trumpCardType) {
+        return rotation[getWinningPlayIndex(trumpCardType)];
+    }
+}
@@ -1,10 +1,10 @@
-package WizardGame.enums;
-
-public enum CardType {
-    YELLOW,
-    RED,
-    BLUE,
-    GREEN,
-    WIZARD,
-    JESTER
-}
+package WizardGame.enums;
+
+public enum CardType {
+    YELLOW,
+    RED,
+    BLUE,
+    GREEN,
+    WIZARD,
+    JESTER
+}
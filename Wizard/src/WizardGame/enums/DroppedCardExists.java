@@ -1,6 +1,6 @@
-package WizardGame.enums;
-
-public enum DroppedCardExists {
-    YES,
-    NO
-}
+package WizardGame.enums;
+
+public enum DroppedCardExists {
+    YES,
+    NO
+}
@@ -0,0 +1,6 @@
+package WizardGame.enums;
+
+public enum HistoryMode {
+    FULL,
+    RECENT
+}
@@ -1,6 +1,6 @@
-package WizardGame.enums;
-
-public enum LastWinnerExists {
-    YES,
-    NO
-}
+package WizardGame.enums;
+
+public enum LastWinnerExists {
+    YES,
+    NO
+}
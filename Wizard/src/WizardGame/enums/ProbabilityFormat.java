@@ -1,6 +1,6 @@
-package WizardGame.enums;
-
-public enum ProbabilityFormat {
-    TOTAL,
-    RELATIVE
-}
+package WizardGame.enums;
+
+public enum ProbabilityFormat {
+    TOTAL,
+    RELATIVE
+}
@@ -0,0 +1,14 @@
+package WizardGame.enums;
+
+/**
+ * How ProbabilityCalculator estimates that opponents hold none of some cards.
+ * APPROXIMATE treats every opponent card as an independent draw with replacement,
+ * EXACT uses the hypergeometric distribution of drawing without replacement.
+ * <p>
+ * APPROXIMATE keeps the original formulas unchanged, including the chance that no opponent holds the suit of the
+ * card to beat: it divides by the opponents' card count where the unseen card count belongs, and can exceed 1.
+ */
+public enum ProbabilityModel {
+    APPROXIMATE,
+    EXACT
+}
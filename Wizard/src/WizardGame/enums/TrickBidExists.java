@@ -1,6 +1,6 @@
-package WizardGame.enums;
-
-public enum TrickBidExists {
-    YES,
-    NO
-}
+package WizardGame.enums;
+
+public enum TrickBidExists {
+    YES,
+    NO
+}
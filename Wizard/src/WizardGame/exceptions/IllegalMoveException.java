@@ -0,0 +1,31 @@
+package WizardGame.exceptions;
+
+import WizardGame.models.Card;
+
+/**
+ * Thrown when a strategy plays a card it does not hold or that the trick rules do not allow.
+ */
+public class IllegalMoveException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String strategyName;
+    // cards are registry singletons, only the message keeps the card when serialized
+    private final transient Card card;
+
+    public IllegalMoveException(String strategyName, Card card) {
+        super("Strategy " + strategyName + " played a card that is not allowed: " + card);
+        this.strategyName = strategyName;
+        this.card = card;
+    }
+
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * @return the card played, null if none was or after deserialization
+     */
+    public Card getCard() {
+        return card;
+    }
+}
@@ -0,0 +1,89 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+import WizardGame.models.Card;
+
+/**
+ * Coarse features of a dealt hand that decide most of its tricks, packed into one dense cell index for
+ * {@link BidTable}: seat amount, hand size, kind of trump, wizards, jesters, trumps, high trumps and high cards of
+ * the other suits. Counts above a cap share the cell of the cap.
+ */
+public final class BidFeatures {
+    public static final int MIN_SEATS = 2;
+    public static final int MAX_SEATS = 6;
+    public static final int MAX_HAND_SIZE = CardRegistry.DECK_SIZE / MIN_SEATS;
+
+    static final int HIGH_TRUMP_NUMBER = 11;
+    static final int HIGH_OFF_SUIT_NUMBER = 12;
+
+    // a wizard as trump card leaves the round without trump, a jester lets jesters beat suit cards
+    private static final int TRUMP_KINDS = 3;
+    private static final int TRUMPS_CAP = 5;
+    private static final int HIGH_TRUMPS_CAP = CardRegistry.SUIT_SIZE - HIGH_TRUMP_NUMBER + 1;
+    private static final int HIGH_OFF_SUIT_CAP = 4;
+
+    public static final int CELLS = (MAX_SEATS - MIN_SEATS + 1) * MAX_HAND_SIZE * TRUMP_KINDS
+            * (CardRegistry.SPECIAL_COPIES + 1) * (CardRegistry.SPECIAL_COPIES + 1)
+            * (TRUMPS_CAP + 1) * (HIGH_TRUMPS_CAP + 1) * (HIGH_OFF_SUIT_CAP + 1);
+
+    private static final long WIZARDS_MASK = CardRegistry.typeMask(CardType.WIZARD);
+    private static final long JESTERS_MASK = CardRegistry.typeMask(CardType.JESTER);
+    // by suit, the cards with at least the high number
+    private static final long[] HIGH_TRUMP_MASKS = new long[CardRegistry.SUITS_COUNT];
+    private static final long[] HIGH_CARD_MASKS = new long[CardRegistry.SUITS_COUNT];
+
+    static {
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            HIGH_TRUMP_MASKS[suit] = highMask(suit, HIGH_TRUMP_NUMBER);
+            HIGH_CARD_MASKS[suit] = highMask(suit, HIGH_OFF_SUIT_NUMBER);
+        }
+    }
+
+    private BidFeatures() {
+    }
+
+    /**
+     * @param trumpCard null in a round without trump card
+     * @return the cell of the hand, or -1 for seat amounts or hand sizes out of range
+     */
+    public static int cellOf(long hand, Card trumpCard, int seatAmount) {
+        int handSize = Long.bitCount(hand);
+
+        if (seatAmount < MIN_SEATS || seatAmount > MAX_SEATS || handSize < 1 || handSize > MAX_HAND_SIZE) {
+            return -1;
+        }
+        CardType trumpType = trumpCard == null ? null : trumpCard.getType();
+        int trumpKind = trumpType == CardType.JESTER ? 2 : trumpType != null && CardRegistry.isSuit(trumpType) ? 1 : 0;
+
+        int trumps = 0;
+        int highTrumps = 0;
+        int highOffSuit = 0;
+
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            if (trumpKind == 1 && suit == trumpType.ordinal()) {
+                trumps = Long.bitCount(hand & CardRegistry.typeMask(trumpType));
+                highTrumps = Long.bitCount(hand & HIGH_TRUMP_MASKS[suit]);
+            } else {
+                highOffSuit += Long.bitCount(hand & HIGH_CARD_MASKS[suit]);
+            }
+        }
+
+        int cell = seatAmount - MIN_SEATS;
+        cell = cell * MAX_HAND_SIZE + handSize - 1;
+        cell = cell * TRUMP_KINDS + trumpKind;
+        cell = cell * (CardRegistry.SPECIAL_COPIES + 1) + Long.bitCount(hand & WIZARDS_MASK);
+        cell = cell * (CardRegistry.SPECIAL_COPIES + 1) + Long.bitCount(hand & JESTERS_MASK);
+        cell = cell * (TRUMPS_CAP + 1) + Math.min(trumps, TRUMPS_CAP);
+        cell = cell * (HIGH_TRUMPS_CAP + 1) + highTrumps;
+        return cell * (HIGH_OFF_SUIT_CAP + 1) + Math.min(highOffSuit, HIGH_OFF_SUIT_CAP);
+    }
+
+    private static long highMask(int suit, int number) {
+        long mask = 0L;
+
+        for (int n = number; n <= CardRegistry.SUIT_SIZE; n++) {
+            mask |= 1L << suit * CardRegistry.SUIT_SIZE + n - 1;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,59 @@
+package WizardGame.handlers;
+
+import WizardGame.models.Card;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bids read from a memory-mapped file written by {@link BidTableGenerator}: one byte per {@link BidFeatures} cell,
+ * the bid with the best mean score over the simulated rounds of the cell, or none for cells seen too rarely.
+ * A lookup is the feature count of the hand and one read. Instances are immutable and can be shared between threads.
+ */
+public class BidTable {
+    static final int MAGIC = 0x575A4254;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final byte NO_BID = -1;
+
+    private final ByteBuffer bids;
+    private final int minSamples;
+
+    private BidTable(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a bid table of version " + VERSION);
+        }
+        if (buffer.getInt(8) != BidFeatures.CELLS || buffer.capacity() != HEADER_BYTES + BidFeatures.CELLS) {
+            throw new IllegalArgumentException("Bid table cells do not match the hand features");
+        }
+        minSamples = buffer.getInt(12);
+        bids = buffer.slice(HEADER_BYTES, BidFeatures.CELLS);
+    }
+
+    public static BidTable open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new BidTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                    .order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    /**
+     * @return rounds a cell needed in the simulation to get a bid
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * @param trumpCard null in a round without trump card
+     * @return the bid, or -1 if the table has none for the hand
+     */
+    public int bid(long hand, Card trumpCard, int seatAmount) {
+        int cell = BidFeatures.cellOf(hand, trumpCard, seatAmount);
+        return cell < 0 ? -1 : bids.get(cell);
+    }
+}
@@ -0,0 +1,125 @@
+package WizardGame.handlers;
+
+import WizardGame.listeners.BidTableRecorder;
+import WizardGame.strategies.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Offline writer of {@link BidTable} files. Plays full games for every seat amount with the strongest bundled
+ * strategies, records the tricks each dealt hand won by its {@link BidFeatures} cell and keeps, per cell, the bid
+ * with the best mean score of {@link GameManager#roundScore(int, int)} over that distribution.
+ * <p>
+ * The tricks depend on how the roster bids and plays, so the table fits play against similar opponents.
+ * <pre>
+ *   java WizardGame.handlers.BidTableGenerator bids.tb 20000 32
+ * </pre>
+ */
+public class BidTableGenerator {
+    private static final long MASTER_SEED = 20240101L;
+    private static final int DEFAULT_MIN_SAMPLES = 32;
+
+    private static final List<Supplier<? extends GameStrategy>> ROSTER = List.of(MetaCrusherV1::new,
+            ChatGPTV4::new, AnalystV1_1::new, CounterAnalystV3::new, AdaptiveMasterV1::new, ChatGPTV5::new);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BidTableGenerator <file> <games per seat amount> [min samples]");
+            return;
+        }
+        int games = Integer.parseInt(args[1]);
+        int minSamples = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MIN_SAMPLES;
+
+        long start = System.nanoTime();
+        PrintStream out = System.out;
+        // several strategies print their reasoning
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        BidTableRecorder recorder;
+        try {
+            recorder = record(games, Runtime.getRuntime().availableProcessors());
+        } finally {
+            System.setOut(out);
+        }
+        int filled = write(Path.of(args[0]), recorder, minSamples);
+
+        System.out.printf("%d of %d cells with a bid in %.1f s%n", filled, BidFeatures.CELLS,
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    public static BidTableRecorder record(int games, int parallelism) {
+        BidTableRecorder recorder = new BidTableRecorder();
+
+        for (int seatAmount = BidFeatures.MIN_SEATS; seatAmount <= BidFeatures.MAX_SEATS; seatAmount++) {
+            GameRunner gameRunner = new GameRunner(ROSTER.subList(0, seatAmount),
+                    CardRegistry.DECK_SIZE / seatAmount, recorder);
+
+            gameRunner.run(games, SeedSequence.split(MASTER_SEED, seatAmount), parallelism);
+        }
+        return recorder;
+    }
+
+    /**
+     * @return cells with a bid
+     */
+    public static int write(Path path, BidTableRecorder recorder, int minSamples) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BidTable.HEADER_BYTES + BidFeatures.CELLS).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(BidTable.MAGIC).putInt(BidTable.VERSION).putInt(BidFeatures.CELLS).putInt(minSamples);
+        int filled = 0;
+
+        for (int cell = 0; cell < BidFeatures.CELLS; cell++) {
+            int bid = bestBid(recorder.tricksOf(cell), minSamples);
+
+            buffer.put(bid < 0 ? BidTable.NO_BID : (byte) bid);
+            filled += bid < 0 ? 0 : 1;
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return filled;
+    }
+
+    /**
+     * @param tricks rounds by tricks won, one more entry than cards in the hand
+     * @return the bid with the best summed score, or -1 with fewer than {@code minSamples} rounds
+     */
+    static int bestBid(int[] tricks, int minSamples) {
+        long samples = 0;
+        for (int rounds : tricks) {
+            samples += rounds;
+        }
+        if (samples == 0 || samples < minSamples) {
+            return -1;
+        }
+
+        int bestBid = -1;
+        long bestScore = Long.MIN_VALUE;
+
+        for (int bid = 0; bid < tricks.length; bid++) {
+            long score = 0;
+
+            for (int trickWins = 0; trickWins < tricks.length; trickWins++) {
+                score += (long) tricks[trickWins] * GameManager.roundScore(bid, trickWins);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestBid = bid;
+            }
+        }
+        return bestBid;
+    }
+}
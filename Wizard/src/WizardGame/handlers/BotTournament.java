@@ -1,122 +1,213 @@
-package WizardGame.handlers;
-
-import WizardGame.contexts.GameContext;
-import WizardGame.models.GameBot;
-import WizardGame.models.GameResult;
-import WizardGame.strategies.GameStrategy;
-
-import java.util.*;
-
-public class BotTournament {
-
-    public static void runTournament(List<GameStrategy> strategies) {
-        Map<String, BotStats> allStats = new HashMap<>();
-
-        int[] roundOptions = {10, 20, 30};
-
-        for (int rounds : roundOptions) {
-            System.out.println("=== TOURNAMENT: " + rounds + " rounds per game ===");
-
-            for (int i = 0; i < strategies.size(); i++) {
-                for (int j = i + 1; j < strategies.size(); j++) {
-                    GameStrategy s1 = strategies.get(i);
-                    GameStrategy s2 = strategies.get(j);
-
-                    GameBot bot1 = new GameBot(s1);
-                    GameBot bot2 = new GameBot(s2);
-
-                    for (int game = 0; game < 1000; game++) {
-                        GameContext context = new GameContext(new HashSet<>(List.of(bot1, bot2)), rounds);
-                        GameHandler handler = new GameHandler(context);
-                        GameResult result = handler.start();
-
-                        updateStats(allStats, result, bot1, bot2);
-                    }
-                }
-            }
-        }
-
-        printStats(allStats);
-    }
-
-    private static void updateStats(Map<String, BotStats> statsMap, GameResult result, GameBot bot1, GameBot bot2) {
-        String name1 = bot1.getStrategyName();
-        String name2 = bot2.getStrategyName();
-
-        int score1 = result.gameContext().getBotScores().get(bot1.getGameBotId());
-        int score2 = result.gameContext().getBotScores().get(bot2.getGameBotId());
-
-        statsMap.putIfAbsent(name1, new BotStats(name1));
-        statsMap.putIfAbsent(name2, new BotStats(name2));
-
-        BotStats stat1 = statsMap.get(name1);
-        BotStats stat2 = statsMap.get(name2);
-
-        stat1.addGame(score1);
-        stat2.addGame(score2);
-
-        if (score1 > score2) {
-            stat1.addWin();
-            stat2.addLoss();
-        } else if (score2 > score1) {
-            stat2.addWin();
-            stat1.addLoss();
-        } else {
-            stat1.addDraw();
-            stat2.addDraw();
-        }
-    }
-
-    private static void printStats(Map<String, BotStats> statsMap) {
-        System.out.println("\n=== FINAL TOURNAMENT RESULTS ===");
-        statsMap.values().stream()
-                .sorted(Comparator.comparingDouble(BotStats::winRate).reversed())
-                .forEach(System.out::println);
-    }
-
-    public static class BotStats {
-        private final String name;
-        private int totalScore = 0;
-        private int games = 0;
-        private int wins = 0;
-        private int losses = 0;
-        private int draws = 0;
-
-        public BotStats(String name) {
-            this.name = name;
-        }
-
-        public void addGame(int score) {
-            totalScore += score;
-            games++;
-        }
-
-        public void addWin() {
-            wins++;
-        }
-
-        public void addLoss() {
-            losses++;
-        }
-
-        public void addDraw() {
-            draws++;
-        }
-
-        public double avgScore() {
-            return games == 0 ? 0 : (double) totalScore / games;
-        }
-
-        public double winRate() {
-            return games == 0 ? 0 : (double) wins / games * 100.0;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("Bot: %-15s | Games: %6d | Wins: %5d | Draws: %5d | WinRate: %6.2f%% | Avg Score: %8.2f | Total Score: %8d",
-                    name, games, wins, draws, winRate(), avgScore(), totalScore);
-        }
-    }
-}
-
-
+package WizardGame.handlers;
+
+import WizardGame.contexts.GameContext;
+import WizardGame.enums.HistoryMode;
+import WizardGame.models.GameBot;
+import WizardGame.models.GameResult;
+import WizardGame.strategies.GameStrategy;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class BotTournament {
+    private static final long DEFAULT_SEED = 20240101L;
+    private static final int[] ROUND_OPTIONS = {10, 20, 30};
+    private static final int GAMES_PER_PAIR = 1000;
+
+    // a game costs roughly rounds^2 card plays; tasks are cut to about this many
+    private static final int TARGET_TASK_COST = 20 * 20 * 50;
+
+    public static void runTournament(List<Supplier<? extends GameStrategy>> strategyFactories) {
+        runTournament(strategyFactories, DEFAULT_SEED, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays every pair of strategies for every round option. Pairings are split into batches of games that are
+     * scheduled most expensive first, and every game has its own seed, so the results do not depend on the
+     * number of threads.
+     */
+    public static void runTournament(List<Supplier<? extends GameStrategy>> strategyFactories, long masterSeed,
+                                     int parallelism) {
+        Map<String, BotStats> allStats = new HashMap<>();
+
+        for (Supplier<? extends GameStrategy> strategyFactory : strategyFactories) {
+            String name = strategyFactory.get().getStrategyName();
+            allStats.putIfAbsent(name, new BotStats(name));
+        }
+
+        System.out.println("=== TOURNAMENT: " + Arrays.toString(ROUND_OPTIONS) + " rounds per game ===");
+
+        List<TournamentTask> tasks = new ArrayList<>();
+
+        for (int rounds : ROUND_OPTIONS) {
+            int gamesPerTask = Math.max(1, TARGET_TASK_COST / (rounds * rounds));
+
+            for (int i = 0; i < strategyFactories.size(); i++) {
+                for (int j = i + 1; j < strategyFactories.size(); j++) {
+                    long matchSeed = SeedSequence.split(SeedSequence.split(SeedSequence.split(masterSeed, rounds), i), j);
+
+                    for (int firstGame = 0; firstGame < GAMES_PER_PAIR; firstGame += gamesPerTask) {
+                        int lastGame = Math.min(GAMES_PER_PAIR, firstGame + gamesPerTask);
+
+                        tasks.add(new TournamentTask(strategyFactories.get(i), strategyFactories.get(j), rounds,
+                                matchSeed, firstGame, lastGame));
+                    }
+                }
+            }
+        }
+
+        tasks.sort(Comparator.comparingLong(TournamentTask::cost).reversed());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+
+            for (TournamentTask task : tasks) {
+                futures.add(pool.submit(() -> task.play(allStats)));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tournament games", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Tournament game failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        printStats(allStats);
+
+        if (ProbabilityCalculator.getCache() != null) {
+            System.out.println(ProbabilityCalculator.getCache());
+        }
+    }
+
+    private record TournamentTask(Supplier<? extends GameStrategy> factory1, Supplier<? extends GameStrategy> factory2,
+                                  int rounds, long matchSeed, int firstGame, int lastGame) {
+
+        long cost() {
+            return (long) rounds * rounds * (lastGame - firstGame);
+        }
+
+        // one context and its bots are reused for all games of the task; the recent history keeps the rounds the
+        // strategies declare to read, so results match a full history. The strategies swap seats every game, so
+        // neither always deals and leads first
+        void play(Map<String, BotStats> statsMap) {
+            GameBot bot1 = new GameBot(strategyOf(firstGame, 0), "Bot 0");
+            GameBot bot2 = new GameBot(strategyOf(firstGame, 1), "Bot 1");
+
+            GameContext context = new GameContext(List.of(bot1, bot2), rounds,
+                    SeedSequence.forGame(matchSeed, firstGame), HistoryMode.RECENT);
+            GameHandler handler = new GameHandler(context);
+
+            for (int game = firstGame; game < lastGame; game++) {
+                if (game > firstGame) {
+                    bot1.setGameStrategy(strategyOf(game, 0));
+                    bot2.setGameStrategy(strategyOf(game, 1));
+                }
+                GameResult result = handler.restart(SeedSequence.forGame(matchSeed, game));
+
+                updateStats(statsMap, result, bot1, bot2);
+            }
+        }
+
+        // factory1 takes seat 0 in even games and seat 1 in odd ones
+        private GameStrategy strategyOf(int game, int seat) {
+            return (game + seat) % 2 == 0 ? factory1.get() : factory2.get();
+        }
+    }
+
+    private static void updateStats(Map<String, BotStats> statsMap, GameResult result, GameBot bot1, GameBot bot2) {
+        int score1 = result.gameContext().getBotScore(bot1.getSeat());
+        int score2 = result.gameContext().getBotScore(bot2.getSeat());
+
+        BotStats stat1 = statsMap.get(bot1.getStrategyName());
+        BotStats stat2 = statsMap.get(bot2.getStrategyName());
+
+        stat1.addGame(score1);
+        stat2.addGame(score2);
+
+        if (score1 > score2) {
+            stat1.addWin();
+            stat2.addLoss();
+        } else if (score2 > score1) {
+            stat2.addWin();
+            stat1.addLoss();
+        } else {
+            stat1.addDraw();
+            stat2.addDraw();
+        }
+    }
+
+    private static void printStats(Map<String, BotStats> statsMap) {
+        System.out.println("\n=== FINAL TOURNAMENT RESULTS ===");
+        statsMap.values().stream()
+                .sorted(Comparator.comparingDouble(BotStats::winRate).reversed()
+                        .thenComparing(BotStats::getName))
+                .forEach(System.out::println);
+    }
+
+    /**
+     * Counters are {@link LongAdder}s, so games finishing on different threads update them without locking.
+     */
+    public static class BotStats {
+        private final String name;
+        private final LongAdder totalScore = new LongAdder();
+        private final LongAdder games = new LongAdder();
+        private final LongAdder wins = new LongAdder();
+        private final LongAdder losses = new LongAdder();
+        private final LongAdder draws = new LongAdder();
+
+        public BotStats(String name) {
+            this.name = name;
+        }
+
+        public void addGame(int score) {
+            totalScore.add(score);
+            games.increment();
+        }
+
+        public void addWin() {
+            wins.increment();
+        }
+
+        public void addLoss() {
+            losses.increment();
+        }
+
+        public void addDraw() {
+            draws.increment();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double avgScore() {
+            long games = this.games.sum();
+            return games == 0 ? 0 : (double) totalScore.sum() / games;
+        }
+
+        public double winRate() {
+            long games = this.games.sum();
+            return games == 0 ? 0 : (double) wins.sum() / games * 100.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Bot: %-15s | Games: %6d | Wins: %5d | Draws: %5d | WinRate: %6.2f%% | Avg Score: %8.2f | Total Score: %8d",
+                    name, games.sum(), wins.sum(), draws.sum(), winRate(), avgScore(), totalScore.sum());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package WizardGame.handlers;
+
+import WizardGame.models.Card;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals from a reusable array of card ordinals with a partial Fisher-Yates shuffle: only the cards that are
+ * actually dealt get shuffled, and the trump is drawn from the same stock so it can never sit in a hand.
+ * Not thread-safe; every game owns its own dealer and random generator, a dealer can be reused for the next
+ * game with {@link #reset(long)}.
+ */
+public class CardDealer {
+    private final int[] deck = new int[CardRegistry.DECK_SIZE];
+    private SplittableRandom random;
+    private int dealtAmount;
+
+    public CardDealer(){
+        this(new SplittableRandom());
+    }
+
+    public CardDealer(SplittableRandom random){
+        this.random = random;
+        sortDeck();
+    }
+
+    /**
+     * Restores the sorted deck and reseeds, so the next deals are the same as those of a new dealer with this seed.
+     */
+    public void reset(long seed){
+        random = new SplittableRandom(seed);
+        sortDeck();
+        dealtAmount = 0;
+    }
+
+    /**
+     * Puts every card back into the stock. The array always holds a permutation of the deck,
+     * so it does not need to be reordered.
+     */
+    public void collectCards(){
+        dealtAmount = 0;
+    }
+
+    /**
+     * @return mask of {@code cardsAmount} cards drawn uniformly from the stock
+     */
+    public long dealHand(int cardsAmount){
+        if(cardsAmount > getStockSize()){
+            throw new IllegalStateException("Cannot deal " + cardsAmount + " cards, only " + getStockSize() + " left");
+        }
+
+        long hand = 0L;
+
+        for(int i = 0; i < cardsAmount; i++){
+            hand |= 1L << drawOrdinal();
+        }
+        return hand;
+    }
+
+    public Card drawCard(){
+        if(getStockSize() == 0){
+            throw new IllegalStateException("No cards left in the stock");
+        }
+        return CardRegistry.getCard(drawOrdinal());
+    }
+
+    public int getStockSize(){
+        return deck.length - dealtAmount;
+    }
+
+    private void sortDeck(){
+        for(int ordinal = 0; ordinal < deck.length; ordinal++){
+            deck[ordinal] = ordinal;
+        }
+    }
+
+    private int drawOrdinal(){
+        int swapIndex = dealtAmount + random.nextInt(deck.length - dealtAmount);
+
+        int ordinal = deck[swapIndex];
+        deck[swapIndex] = deck[dealtAmount];
+        deck[dealtAmount] = ordinal;
+
+        dealtAmount++;
+        return ordinal;
+    }
+}
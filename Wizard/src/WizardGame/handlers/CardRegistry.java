@@ -0,0 +1,116 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+import WizardGame.models.Card;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Canonical 60-card deck. Every card exists exactly once and is addressed by a dense ordinal:
+ * <pre>
+ *   0..51  colored suits, ordinal = suit * 13 + (number - 1) in {@link CardType} order
+ *  52..55  wizards (number 14)
+ *  56..59  jesters (number 0)
+ * </pre>
+ * Lookups by ordinal or by (CardType, number) are plain array loads.
+ */
+public class CardRegistry {
+    public static final int DECK_SIZE = 60;
+    public static final int SUIT_SIZE = 13;
+    public static final int SUITS_COUNT = 4;
+    public static final int SPECIAL_COPIES = 4;
+    public static final int WIZARD_OFFSET = SUITS_COUNT * SUIT_SIZE;
+    public static final int JESTER_OFFSET = WIZARD_OFFSET + SPECIAL_COPIES;
+
+    public static final int WIZARD_NUMBER = 14;
+    public static final int JESTER_NUMBER = 0;
+
+    private static final int MAX_NUMBER = WIZARD_NUMBER;
+
+    private static final Card[] CARDS = new Card[DECK_SIZE];
+    // [CardType.ordinal()] -> mask of every card of that type
+    private static final long[] TYPE_MASKS = new long[CardType.values().length];
+    private static final List<Card> ALL_CARDS;
+
+    // [CardType.ordinal()][number] -> every card with that type and number
+    private static final List<List<List<Card>>> CARDS_BY_TYPE_AND_NUMBER = new ArrayList<>();
+
+    static {
+        for (CardType cardType : CardType.values()) {
+            List<List<Card>> byNumber = new ArrayList<>();
+
+            for (int number = 0; number <= MAX_NUMBER; number++) {
+                byNumber.add(new ArrayList<>());
+            }
+            CARDS_BY_TYPE_AND_NUMBER.add(byNumber);
+        }
+
+        for (int ordinal = 0; ordinal < DECK_SIZE; ordinal++) {
+            CardType cardType = typeOf(ordinal);
+            int number = numberOf(ordinal);
+
+            Card card = new Card(ordinal, IDGenerator.getNextCardId(), cardType, number);
+            CARDS[ordinal] = card;
+            TYPE_MASKS[cardType.ordinal()] |= 1L << ordinal;
+            CARDS_BY_TYPE_AND_NUMBER.get(cardType.ordinal()).get(number).add(card);
+        }
+
+        for (List<List<Card>> byNumber : CARDS_BY_TYPE_AND_NUMBER) {
+            byNumber.replaceAll(Collections::unmodifiableList);
+        }
+
+        ALL_CARDS = List.of(CARDS);
+    }
+
+    public static Card getCard(int ordinal) {
+        return CARDS[ordinal];
+    }
+
+    /**
+     * @return the card with the given type and number, or the first copy for wizards and jesters;
+     * {@code null} if no such card exists
+     */
+    public static Card getCard(CardType cardType, int number) {
+        List<Card> cards = getCards(cardType, number);
+
+        return cards.isEmpty() ? null : cards.getFirst();
+    }
+
+    /**
+     * @return every card with the given type and number (four copies for wizards and jesters)
+     */
+    public static List<Card> getCards(CardType cardType, int number) {
+        if (number < 0 || number > MAX_NUMBER) {
+            return List.of();
+        }
+        return CARDS_BY_TYPE_AND_NUMBER.get(cardType.ordinal()).get(number);
+    }
+
+    public static List<Card> getAllCards() {
+        return ALL_CARDS;
+    }
+
+    public static long typeMask(CardType cardType) {
+        return TYPE_MASKS[cardType.ordinal()];
+    }
+
+    public static boolean isSuit(CardType cardType) {
+        return cardType.ordinal() < SUITS_COUNT;
+    }
+
+    private static CardType typeOf(int ordinal) {
+        if (ordinal < WIZARD_OFFSET) {
+            return CardType.values()[ordinal / SUIT_SIZE];
+        }
+        return ordinal < JESTER_OFFSET ? CardType.WIZARD : CardType.JESTER;
+    }
+
+    private static int numberOf(int ordinal) {
+        if (ordinal < WIZARD_OFFSET) {
+            return ordinal % SUIT_SIZE + 1;
+        }
+        return ordinal < JESTER_OFFSET ? WIZARD_NUMBER : JESTER_NUMBER;
+    }
+}
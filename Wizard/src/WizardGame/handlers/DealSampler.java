@@ -0,0 +1,105 @@
+package WizardGame.handlers;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deals the cards a seat has not seen to the other hands at random, e.g. to guess the hidden hands of a round.
+ * Every card goes to a hand that still needs cards and may hold it, or stays in the stock; hands are picked in
+ * proportion to the cards they still need, so without exclusions every deal is equally likely.
+ * An instance reuses its buffers for every deal and is not thread-safe.
+ */
+public class DealSampler {
+    private static final int MAX_ATTEMPTS = 16;
+
+    private final int[] cards = new int[CardRegistry.DECK_SIZE];
+    private int[] needs = new int[0];
+
+    /**
+     * @param unseenMask cards to deal: the hidden hands and the stock
+     * @param handSizes  cards every seat gets, 0 for seats whose hand is known
+     * @param excluded   by seat, cards the seat cannot hold, e.g. a suit it did not follow; dropped if no deal
+     *                   satisfies them after a few attempts
+     * @param hands      receives the dealt masks for seats with a hand size, other seats are left as they are
+     */
+    public void sample(long unseenMask, int[] handSizes, long[] excluded, SplittableRandom random, long[] hands){
+        int amount = Long.bitCount(unseenMask);
+        int stockSize = amount;
+
+        for(int handSize : handSizes){
+            stockSize -= handSize;
+        }
+        if(stockSize < 0){
+            throw new IllegalArgumentException("Not enough unseen cards for the hands: " + amount);
+        }
+
+        int index = 0;
+        for(long rest = unseenMask; rest != 0; rest &= rest - 1){
+            cards[index++] = Long.numberOfTrailingZeros(rest);
+        }
+        if(needs.length < handSizes.length){
+            needs = new int[handSizes.length];
+        }
+
+        for(int attempt = 0; attempt <= MAX_ATTEMPTS; attempt++){
+            if(deal(amount, handSizes, stockSize, attempt < MAX_ATTEMPTS ? excluded : null, random, hands)){
+                return;
+            }
+        }
+        throw new IllegalStateException("Unconstrained deal failed");
+    }
+
+    private boolean deal(int amount, int[] handSizes, int stockSize, long[] excluded, SplittableRandom random,
+                         long[] hands){
+        System.arraycopy(handSizes, 0, needs, 0, handSizes.length);
+        int stockNeed = stockSize;
+
+        for(int seat = 0; seat < handSizes.length; seat++){
+            if(handSizes[seat] > 0){
+                hands[seat] = 0L;
+            }
+        }
+
+        // cards in random order, each to a place drawn by weight = cards still needed there
+        for(int i = amount - 1; i >= 0; i--){
+            int j = random.nextInt(i + 1);
+            int card = cards[j];
+            cards[j] = cards[i];
+            cards[i] = card;
+
+            int total = stockNeed;
+            for(int seat = 0; seat < handSizes.length; seat++){
+                if(fits(seat, card, excluded)){
+                    total += needs[seat];
+                }
+            }
+            if(total == 0){
+                return false;
+            }
+
+            int pick = random.nextInt(total);
+
+            if(pick < stockNeed){
+                stockNeed--;
+                continue;
+            }
+            pick -= stockNeed;
+
+            for(int seat = 0; seat < handSizes.length; seat++){
+                if(!fits(seat, card, excluded)){
+                    continue;
+                }
+                if(pick < needs[seat]){
+                    needs[seat]--;
+                    hands[seat] |= 1L << card;
+                    break;
+                }
+                pick -= needs[seat];
+            }
+        }
+        return true;
+    }
+
+    private static boolean fits(int seat, int card, long[] excluded){
+        return excluded == null || (excluded[seat] & 1L << card) == 0;
+    }
+}
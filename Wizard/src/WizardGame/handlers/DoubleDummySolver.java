@@ -0,0 +1,794 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Perfect-information trick solver: given every hand as a card mask, it finds how many of the remaining tricks
+ * a seat can force when all other seats play against it. Tricks follow the engine rules, legal cards come from
+ * {@link TrickRules#legalResponseMask(long, WizardGame.models.Card)} and the winner is the card that beats every
+ * earlier one, as in {@link WizardGame.contexts.TrickContext#getWinningPlayIndex(CardType)}.
+ * <p>
+ * The search is alpha-beta over the plays, driven by null-window searches (MTD(f)). Positions at trick boundaries
+ * are kept in a transposition table with a lower and an upper bound and the best lead, two per bucket: the one
+ * with the most cards left and the latest one. The Zobrist key ignores what only the played cards tell apart, see
+ * {@link #positionKey(int)}. Cheap bounds cut off many positions before they are searched: cards that win
+ * whenever they are played, wizards that win every trick no other wizard is played to before them, sure cards the
+ * leader cashes in a row. Once no seat still to play can change who takes a trick, the rest of it is not searched.
+ * Cards that cannot differ in outcome are tried once: suit cards of one hand with no live card between them, and
+ * copies of wizards or jesters. Leads that caused a cutoff earlier in the solve are tried first. An instance keeps
+ * its table between calls and is not thread-safe, use one per thread.
+ * <p>
+ * With 4 seats a solve takes a fraction of a millisecond at 6 cards and under 10 ms on average at 8. At 10 cards half
+ * of the deals solve in about 10 ms, but the cost has a long tail: the slowest tenth takes from a third of a second
+ * to several seconds, see the doubleDummy benchmarks and the profile next to them. Those are deals where the seat
+ * can force tricks against the three others, and proving it means refuting every line of all three.
+ * <p>
+ * {@link #solveFewest} answers the opposite question, how few tricks a seat can be held to when it tries to lose
+ * every trick and all other seats try to give it tricks. It runs the same search on the tricks the seat does not win.
+ * {@link #solveMiss} asks how close a seat can get to an exact amount of tricks, as a bid needs: the seat plays for
+ * the least difference, all other seats for the most. Its positions are keyed by the tricks still needed, clamped to
+ * the tricks left, since beyond them the seat only wants as many or as few as it can get.
+ */
+public class DoubleDummySolver {
+    public static final int MAX_SEATS = 6;
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    private static final int DECK_SIZE = CardRegistry.DECK_SIZE;
+    private static final long WIZARDS_MASK = CardRegistry.typeMask(CardType.WIZARD);
+    private static final long JESTERS_MASK = CardRegistry.typeMask(CardType.JESTER);
+    private static final long SUIT_BITS = (1L << CardRegistry.SUIT_SIZE) - 1;
+    // [card] the cards that follow it when it is led, 0 when any card may be played on it, see legalMoves
+    private static final long[] FOLLOW_MASKS = new long[DECK_SIZE];
+
+    private static final long SUIT_STREAM = 1L;
+    private static final long TRUMP_SUIT_STREAM = 2L;
+
+    // Zobrist keys: [rank among the live cards of its suit * MAX_SEATS + seat] for a suit card,
+    // [(type * MAX_SEATS + seat) * (SPECIAL_COPIES + 1) + copies] for the wizards and jesters of a seat
+    private static final long[] RANK_KEYS = new long[CardRegistry.SUIT_SIZE * MAX_SEATS];
+    private static final long[] SPECIAL_KEYS = new long[2 * MAX_SEATS * (CardRegistry.SPECIAL_COPIES + 1)];
+    private static final long[] LEADER_KEYS = new long[MAX_SEATS];
+    private static final long[] TARGET_KEYS = new long[MAX_SEATS];
+    private static final long JESTER_TRUMP_KEY;
+    private static final long FEWEST_KEY;
+    // by the tricks the target seat still needs, see solveMiss
+    private static final long[] NEED_KEYS = new long[DECK_SIZE / 2 + 1];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+
+        fill(RANK_KEYS, random);
+        fill(SPECIAL_KEYS, random);
+        fill(LEADER_KEYS, random);
+        fill(TARGET_KEYS, random);
+        JESTER_TRUMP_KEY = random.nextLong();
+        FEWEST_KEY = random.nextLong();
+        fill(NEED_KEYS, random);
+
+        for (int ordinal = 0; ordinal < DECK_SIZE; ordinal++) {
+            CardType cardType = CardRegistry.getCard(ordinal).getType();
+
+            if (CardRegistry.isSuit(cardType)) {
+                FOLLOW_MASKS[ordinal] = CardRegistry.typeMask(cardType);
+            }
+        }
+    }
+
+    private final int bucketMask;
+    // buckets of two positions, two longs each: the key, then lower bound | upper bound << 8 | best lead << 16
+    // | cards per hand << 24; the first position of a bucket is the one with the most cards left
+    private final long[] table;
+
+    private final long[] hands = new long[MAX_SEATS];
+    // cards played so far in the current search, the current trick is the tail
+    private final int[] played = new int[DECK_SIZE];
+    // after each play: the card holding the trick and its seat
+    private final int[] winningCards = new int[DECK_SIZE];
+    private final int[] winnerSeats = new int[DECK_SIZE];
+    // [depth * DECK_SIZE ...] ordered moves of every search depth and their scores
+    private final int[] moves = new int[DECK_SIZE * (DECK_SIZE + 1)];
+    private final int[] scores = new int[DECK_SIZE * (DECK_SIZE + 1)];
+    private final int[] strength = new int[DECK_SIZE];
+    private final int[] owners = new int[DECK_SIZE];
+    // [seat * DECK_SIZE + card] leads that caused a cutoff in the current solve, see orderMoves
+    private final long[] history = new long[MAX_SEATS * DECK_SIZE];
+
+    private int seatAmount;
+    private int bestMove;
+    private int trumpIndex;
+    private int trumpSuit;
+    // with a jester as trump card jesters beat the suits, see TrickRules
+    private boolean jesterTrump;
+    private int targetSeat;
+    // the search counts the tricks the target seat does not win, see solveFewest
+    private boolean fewest;
+    // the search measures how far the target seat ends up from the tricks it needs, see solveMiss
+    private boolean miss;
+    // cards in the hands and in the current trick
+    private long live;
+    private long nodes;
+
+    public DoubleDummySolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * @param tableBits the transposition table holds {@code 2^tableBits} positions
+     */
+    public DoubleDummySolver(int tableBits) {
+        if (tableBits < 1 || tableBits > 28) {
+            throw new IllegalArgumentException("Table bits must be in 1..28: " + tableBits);
+        }
+        bucketMask = (1 << tableBits - 1) - 1;
+        table = new long[2 << tableBits];
+    }
+
+    /**
+     * @param hands card masks by seat, all of the same size
+     * @return for every seat the tricks it can force when {@code leader} leads the next trick
+     */
+    public int[] solve(long[] hands, CardType trumpCardType, int leader) {
+        int[] tricks = new int[hands.length];
+
+        for (int seat = 0; seat < hands.length; seat++) {
+            tricks[seat] = solve(hands, trumpCardType, leader, new int[0], seat);
+        }
+        return tricks;
+    }
+
+    /**
+     * Solves from the middle of a trick.
+     *
+     * @param hands        card masks by seat; seats that already played to the current trick hold one card less
+     * @param leader       seat that led the current trick
+     * @param currentTrick ordinals already played to the current trick, in play order
+     * @return the tricks {@code targetSeat} can force from here on, the current trick included
+     */
+    public int solve(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat) {
+        return search(hands, trumpCardType, leader, currentTrick, targetSeat, false);
+    }
+
+    /**
+     * Same arguments as {@link #solve(long[], CardType, int, int[], int)}.
+     *
+     * @return the fewest tricks {@code targetSeat} can be held to from here on when it tries to lose them
+     */
+    public int solveFewest(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat) {
+        int remaining = Long.bitCount(hands[leader]) + (currentTrick.length == 0 ? 0 : 1);
+
+        return remaining - search(hands, trumpCardType, leader, currentTrick, targetSeat, true);
+    }
+
+    /**
+     * Same arguments as {@link #solve(long[], CardType, int, int[], int)}.
+     *
+     * @param need tricks {@code targetSeat} still has to win from here on, the current trick included, to make its
+     *             bid; below zero if it already won too many
+     * @return the least difference between {@code need} and the tricks {@code targetSeat} wins from here on that
+     * it can hold when all other seats play against its bid, 0 if it can make the bid
+     */
+    public int solveMiss(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat,
+                         int need) {
+        load(hands, trumpCardType, leader, currentTrick, targetSeat);
+        fewest = false;
+        miss = true;
+
+        int remaining = Long.bitCount(hands[leader]) + (currentTrick.length == 0 ? 0 : 1);
+        return search(leader, currentTrick, need, 0, Math.max(Math.abs(need), Math.abs(need - remaining)), 0);
+    }
+
+    private int search(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat,
+                       boolean fewest) {
+        load(hands, trumpCardType, leader, currentTrick, targetSeat);
+        this.fewest = fewest;
+        miss = false;
+
+        int upper = Long.bitCount(hands[leader]) + (currentTrick.length == 0 ? 0 : 1);
+        return search(leader, currentTrick, 0, 0, upper, fewest ? upper - upper / seatAmount : upper / seatAmount);
+    }
+
+    // MTD(f): null-window searches around the guess until the bounds meet, the table keeps what they proved
+    private int search(int leader, int[] currentTrick, int need, int lower, int upper, int guess) {
+        while (lower < upper) {
+            int beta = Math.max(guess, lower + 1);
+
+            if (currentTrick.length > 0) {
+                guess = searchPlay((leader + currentTrick.length) % seatAmount, currentTrick.length,
+                        currentTrick.length, need, beta - 1, beta, -1);
+            } else {
+                guess = miss ? missTrick(leader, 0, need, beta - 1, beta) : searchTrick(leader, 0, beta - 1, beta);
+            }
+
+            if (guess < beta) {
+                upper = guess;
+            } else {
+                lower = guess;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Drops every stored position, e.g. to measure a cold solve. Keys include the target seat and the trump,
+     * so the table never has to be cleared between calls for correctness.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * @return positions searched since the instance was created
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    private void load(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat) {
+        if (hands.length < 2 || hands.length > MAX_SEATS) {
+            throw new IllegalArgumentException("Seat amount must be in 2.." + MAX_SEATS + ": " + hands.length);
+        }
+        if (currentTrick.length >= hands.length) {
+            throw new IllegalArgumentException("The current trick is already complete");
+        }
+
+        seatAmount = hands.length;
+        Arrays.fill(history, 0L);
+        trumpIndex = TrickRules.trumpIndex(trumpCardType);
+        trumpSuit = trumpIndex < CardRegistry.SUITS_COUNT ? trumpIndex : -1;
+        jesterTrump = trumpCardType == CardType.JESTER;
+        this.targetSeat = targetSeat;
+
+        long cards = 0L;
+        int handSize = Long.bitCount(hands[leader]);
+
+        for (int seat = 0; seat < seatAmount; seat++) {
+            int playedToTrick = (seat - leader + seatAmount) % seatAmount < currentTrick.length ? 1 : 0;
+
+            if (Long.bitCount(hands[seat]) + playedToTrick != handSize + (currentTrick.length > 0 ? 1 : 0)) {
+                throw new IllegalArgumentException("Hand sizes do not match the current trick");
+            }
+            if ((cards & hands[seat]) != 0) {
+                throw new IllegalArgumentException("Seat " + seat + " holds a card of another seat");
+            }
+            cards |= hands[seat];
+            this.hands[seat] = hands[seat];
+
+            for (long rest = hands[seat]; rest != 0; rest &= rest - 1) {
+                owners[Long.numberOfTrailingZeros(rest)] = seat;
+            }
+        }
+
+        live = cards;
+
+        for (int i = 0; i < currentTrick.length; i++) {
+            if ((live & 1L << currentTrick[i]) != 0) {
+                throw new IllegalArgumentException("Card " + currentTrick[i] + " is both played and held");
+            }
+            live |= 1L << currentTrick[i];
+            play(i, (leader + i) % seatAmount, currentTrick[i], i);
+        }
+
+        for (int ordinal = 0; ordinal < DECK_SIZE; ordinal++) {
+            CardType cardType = CardRegistry.getCard(ordinal).getType();
+
+            if (cardType == CardType.WIZARD) {
+                strength[ordinal] = 100;
+            } else if (cardType == CardType.JESTER) {
+                strength[ordinal] = 0;
+            } else {
+                strength[ordinal] = ordinal % CardRegistry.SUIT_SIZE + 1
+                        + (cardType.ordinal() == trumpIndex ? CardRegistry.SUIT_SIZE : 0);
+            }
+        }
+    }
+
+    // value is the amount of the remaining tricks won by the target seat, or not won by it when searching the fewest
+    private int searchTrick(int leader, int depth, int alpha, int beta) {
+        if (hands[leader] == 0) {
+            return 0;
+        }
+        if (Long.bitCount(hands[leader]) == 1) {
+            return lastTrick(leader);
+        }
+        // both bounds hold whatever the seats try, so they swap roles when searching the fewest tricks
+        int lower = fewest ? guaranteedLosses() : guaranteedTricks();
+        int upper = Long.bitCount(hands[leader]) - (fewest ? guaranteedTricks() : guaranteedLosses());
+
+        if (!fewest) {
+            int tricks = Long.bitCount(hands[leader]);
+            int targetWizards = Long.bitCount(hands[targetSeat] & WIZARDS_MASK);
+            int otherWizards = Long.bitCount(live & WIZARDS_MASK) - targetWizards;
+
+            // a wizard wins every trick no other wizard is played to before it, so a side takes a trick with each of
+            // its wizards but for the tricks where the other side spends a wizard first
+            lower = Math.max(lower, Math.min(targetWizards, tricks - otherWizards));
+            upper = Math.min(upper, tricks - Math.min(otherWizards, tricks - targetWizards));
+
+            if (leader == targetSeat) {
+                lower = Math.max(lower, quickTricks(leader));
+            } else {
+                upper = Math.min(upper, tricks - quickTricks(leader));
+
+                if (lower == 0 && outlastsWizards(leader)) {
+                    lower = 1;
+                }
+            }
+        }
+
+        // checked on every return, it also keeps the window below from getting empty, where a returned value
+        // would be no bound at all
+        if (lower >= beta || lower == upper) {
+            return lower;
+        }
+        if (upper <= alpha) {
+            return upper;
+        }
+
+        return searchStored(positionKey(leader), leader, depth, 0, lower, upper, alpha, beta);
+    }
+
+    // value is how far the tricks the target seat wins from here on end up from need
+    private int missTrick(int leader, int depth, int need, int alpha, int beta) {
+        int tricks = Long.bitCount(hands[leader]);
+        // beyond the tricks left every trick won adds to the difference or takes from it alike
+        int excess = need < 0 ? -need : Math.max(0, need - tricks);
+
+        if (excess > 0) {
+            int clamped = need < 0 ? 0 : tricks;
+            return excess + missTrick(leader, depth, clamped, alpha - excess, beta - excess);
+        }
+        if (tricks == 0) {
+            return 0;
+        }
+        if (tricks == 1) {
+            return Math.abs(need - lastTrick(leader));
+        }
+        // the target wins from least to most tricks, whatever the seats try
+        int least = guaranteedTricks();
+        int most = tricks - guaranteedLosses();
+        int lower = Math.max(0, Math.max(least - need, need - most));
+        int upper = Math.max(Math.abs(need - least), Math.abs(need - most));
+
+        if (lower >= beta || lower == upper) {
+            return lower;
+        }
+        if (upper <= alpha) {
+            return upper;
+        }
+        return searchStored(positionKey(leader) ^ NEED_KEYS[need], leader, depth, need, lower, upper, alpha, beta);
+    }
+
+    // searches the leads of a trick boundary within the bounds, narrowed by the table and stored back into it
+    private int searchStored(long key, int leader, int depth, int need, int lower, int upper, int alpha, int beta) {
+        int bucket = ((int) (key ^ key >>> 32) & bucketMask) << 2;
+        // stored keys carry a set low bit so a zeroed slot never matches
+        long storedKey = key | 1L;
+        int slot = table[bucket] == storedKey ? bucket : table[bucket + 2] == storedKey ? bucket + 2 : -1;
+        int preferredMove = -1;
+
+        if (slot >= 0) {
+            long entry = table[slot + 1];
+
+            lower = Math.max(lower, (int) (entry & 0xFF));
+            upper = Math.min(upper, (int) (entry >>> 8 & 0xFF));
+            preferredMove = (int) (entry >>> 16 & 0xFF);
+
+            if (lower >= beta || lower == upper) {
+                return lower;
+            }
+            if (upper <= alpha) {
+                return upper;
+            }
+        }
+
+        alpha = Math.max(alpha, lower);
+        beta = Math.min(beta, upper);
+        int value = searchPlay(leader, 0, depth, need, alpha, beta, preferredMove);
+
+        if (value <= alpha) {
+            upper = Math.min(upper, value);
+        } else if (value >= beta) {
+            lower = Math.max(lower, value);
+        } else {
+            lower = value;
+            upper = value;
+        }
+        int cards = Long.bitCount(hands[leader]);
+
+        // a new position takes the first place if it is at least as deep and pushes the old one down
+        if (slot < 0 && cards >= (int) (table[bucket + 1] >>> 24 & 0xFF)) {
+            table[bucket + 2] = table[bucket];
+            table[bucket + 3] = table[bucket + 1];
+            slot = bucket;
+        } else if (slot < 0) {
+            slot = bucket + 2;
+        }
+        table[slot] = storedKey;
+        table[slot + 1] = lower | upper << 8 | (long) bestMove << 16 | (long) cards << 24;
+        return value;
+    }
+
+    /**
+     * Leaves the card that decided the value in {@link #bestMove}.
+     *
+     * @param need          tricks the target seat still needs when searching the miss, else unused
+     * @param preferredMove card to try first, or -1
+     */
+    private int searchPlay(int seat, int playedToTrick, int depth, int need, int alpha, int beta, int preferredMove) {
+        if (playedToTrick > 0 && !miss) {
+            int won = decidedTrick(seat, playedToTrick, depth);
+
+            // the rest of the trick cannot change who takes it
+            if (won >= 0) {
+                won = (won == 1) != fewest ? 1 : 0;
+                int after = Long.bitCount(hands[seat]) - 1;
+
+                if (won >= beta) {
+                    return won;
+                }
+                if (won + after <= alpha) {
+                    return won + after;
+                }
+            }
+        }
+        nodes++;
+        // when searching the miss every seat rather ducks once the target needs no more tricks
+        int moveCount = orderMoves(seat, playedToTrick, depth, preferredMove, miss ? need <= 0 : fewest);
+        int firstMove = depth * DECK_SIZE;
+        // the target seat wants the least miss, all other seats the most
+        boolean maximizing = (seat == targetSeat) != miss;
+        int best = maximizing ? -1 : Integer.MAX_VALUE;
+        int bestCard = moves[firstMove];
+
+        for (int i = firstMove; i < firstMove + moveCount; i++) {
+            int card = moves[i];
+            hands[seat] &= ~(1L << card);
+            play(depth, seat, card, playedToTrick);
+
+            int value;
+
+            if (playedToTrick + 1 == seatAmount) {
+                int winner = winnerSeats[depth];
+                int won = (winner == targetSeat) != fewest ? 1 : 0;
+                long trickMask = 0L;
+
+                for (int trickDepth = depth + 1 - seatAmount; trickDepth <= depth; trickDepth++) {
+                    trickMask |= 1L << played[trickDepth];
+                }
+                live &= ~trickMask;
+                value = miss ? missTrick(winner, depth + 1, need - won, alpha, beta)
+                        : won + searchTrick(winner, depth + 1, alpha - won, beta - won);
+                live |= trickMask;
+            } else {
+                value = searchPlay((seat + 1) % seatAmount, playedToTrick + 1, depth + 1, need, alpha, beta, -1);
+            }
+
+            hands[seat] |= 1L << card;
+
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestCard = card;
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, best);
+            } else {
+                beta = Math.min(beta, best);
+            }
+            if (alpha >= beta) {
+                if (playedToTrick == 0) {
+                    history[seat * DECK_SIZE + card]++;
+                }
+                break;
+            }
+        }
+        bestMove = bestCard;
+        return best;
+    }
+
+    /**
+     * Outcomes only depend on how the live cards compare, so suit cards are keyed by their rank among the live
+     * cards of the suit and wizards and jesters by their count per seat. The suits other than trump are
+     * interchangeable and are summed after mixing, so positions that differ by suit names share one key too.
+     */
+    private long positionKey(int leader) {
+        long specials = 0L;
+
+        for (int seat = 0; seat < seatAmount; seat++) {
+            specials ^= SPECIAL_KEYS[seat * (CardRegistry.SPECIAL_COPIES + 1)
+                    + Long.bitCount(hands[seat] & WIZARDS_MASK)];
+            specials ^= SPECIAL_KEYS[(MAX_SEATS + seat) * (CardRegistry.SPECIAL_COPIES + 1)
+                    + Long.bitCount(hands[seat] & JESTERS_MASK)];
+        }
+        long key = LEADER_KEYS[leader] ^ TARGET_KEYS[targetSeat] ^ specials ^ (jesterTrump ? JESTER_TRUMP_KEY : 0L)
+                ^ (fewest ? FEWEST_KEY : 0L);
+
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            int shift = suit * CardRegistry.SUIT_SIZE;
+            long suitKey = 0L;
+            int rank = 0;
+
+            for (long rest = live >>> shift & SUIT_BITS; rest != 0; rest &= rest - 1) {
+                suitKey ^= RANK_KEYS[rank++ * MAX_SEATS + owners[shift + Long.numberOfTrailingZeros(rest)]];
+            }
+            key += SeedSequence.split(suitKey, suit == trumpSuit ? TRUMP_SUIT_STREAM : SUIT_STREAM);
+        }
+        return key;
+    }
+
+    // 1 when the target seat takes the current trick whatever the seats still to play do, 0 when it cannot, else -1
+    private int decidedTrick(int seat, int playedToTrick, int depth) {
+        long beaters = TrickRules.beatersOf(winningCards[depth - 1], trumpIndex);
+        int led = played[depth - playedToTrick];
+        boolean targetHolds = winnerSeats[depth - 1] == targetSeat;
+
+        // a card that cannot beat the one holding the trick cannot beat a later one either, but with a jester as
+        // trump a jester beats a suit card and any card beats the jester
+        if (!targetHolds && jesterTrump) {
+            return -1;
+        }
+        for (int playIndex = playedToTrick; playIndex < seatAmount; playIndex++) {
+            boolean canBeat = (legalMoves(hands[seat], led) & beaters) != 0;
+
+            if (targetHolds && canBeat) {
+                return -1;
+            }
+            if (!targetHolds && seat == targetSeat) {
+                return canBeat ? -1 : 0;
+            }
+            seat = (seat + 1) % seatAmount;
+        }
+        return targetHolds ? 1 : 0;
+    }
+
+    // every seat holds one card, so the trick is forced
+    private int lastTrick(int leader) {
+        nodes++;
+        int winningCard = Long.numberOfTrailingZeros(hands[leader]);
+        int winner = leader;
+
+        for (int playIndex = 1; playIndex < seatAmount; playIndex++) {
+            int seat = (leader + playIndex) % seatAmount;
+            int card = Long.numberOfTrailingZeros(hands[seat]);
+
+            if ((TrickRules.beatersOf(winningCard, trumpIndex) & 1L << card) != 0) {
+                winningCard = card;
+                winner = seat;
+            }
+        }
+        return (winner == targetSeat) != fewest ? 1 : 0;
+    }
+
+    /**
+     * Wizards and trumps above every trump of {@code against}: wherever they are played in a trick, they beat
+     * every card of {@code against} but a wizard. Cards of one hand always go to different tricks.
+     */
+    private int strongCards(long hand, long against) {
+        int cards = Long.bitCount(hand & WIZARDS_MASK);
+
+        if (trumpSuit >= 0) {
+            int shift = trumpSuit * CardRegistry.SUIT_SIZE;
+            long trumps = hand >>> shift & SUIT_BITS;
+            long againstTrumps = against >>> shift & SUIT_BITS;
+
+            cards += Long.bitCount(againstTrumps == 0 ? trumps : trumps & -(Long.highestOneBit(againstTrumps) << 1));
+        }
+        return cards;
+    }
+
+    // every opponent wizard can spoil at most one strong card of the target
+    private int guaranteedTricks() {
+        long opponents = live & ~hands[targetSeat];
+
+        return Math.max(0, strongCards(hands[targetSeat], opponents) - Long.bitCount(opponents & WIZARDS_MASK));
+    }
+
+    private int guaranteedLosses() {
+        long target = hands[targetSeat];
+        int targetWizards = Long.bitCount(target & WIZARDS_MASK);
+        int losses = deadJesters();
+        int sureTricks = 0;
+
+        for (int seat = 0; seat < seatAmount; seat++) {
+            if (seat == targetSeat) {
+                continue;
+            }
+            // the target needs a wizard for every trick with a strong card of this seat
+            losses = Math.max(losses, strongCards(hands[seat], target) - targetWizards);
+
+            // with no wizard left elsewhere strong cards are sure tricks, and two of them never meet in a trick
+            long others = live & ~hands[seat];
+            if ((others & WIZARDS_MASK) == 0) {
+                sureTricks += strongCards(hands[seat], others);
+            }
+        }
+        return Math.max(losses, sureTricks);
+    }
+
+    /**
+     * Tricks the leader takes in a row by leading its sure cards: its wizards, and when no other seat holds a wizard
+     * its other strong cards, then in every other suit its cards above those of all other seats, as long as every
+     * seat that could ruff still has to follow suit.
+     */
+    private int quickTricks(int leader) {
+        long others = live & ~hands[leader];
+        long hand = hands[leader];
+
+        if ((others & WIZARDS_MASK) != 0 || jesterTrump && (others & JESTERS_MASK) != 0) {
+            return Long.bitCount(hand & WIZARDS_MASK);
+        }
+        int tricks = strongCards(hand, others);
+
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            if (suit == trumpSuit) {
+                continue;
+            }
+            int shift = suit * CardRegistry.SUIT_SIZE;
+            long suitHand = hand >>> shift & SUIT_BITS;
+            long suitOthers = others >>> shift & SUIT_BITS;
+            int cash = Long.bitCount(suitOthers == 0 ? suitHand : suitHand & -(Long.highestOneBit(suitOthers) << 1));
+
+            for (int seat = 0; seat < seatAmount && cash > 0 && trumpSuit >= 0; seat++) {
+                if (seat != leader && (hands[seat] >>> trumpSuit * CardRegistry.SUIT_SIZE & SUIT_BITS) != 0) {
+                    cash = Math.min(cash, Long.bitCount(hands[seat] >>> shift & SUIT_BITS));
+                }
+            }
+            tricks += cash;
+        }
+        return tricks;
+    }
+
+    /**
+     * Whether the target takes a trick with a strong card when the leader holds every wizard of the other seats and
+     * some other card. A wizard led wins, so the leader leads again, and the target plays any other card on it; the
+     * first other card led lets the target play a strong card that no later card beats, as long as the target can
+     * follow it with one: it holds a wizard, or its strong trumps may be played on every suit the leader holds.
+     * Each wizard led can only cost the target a strong card once it has nothing else left, and then it still
+     * keeps one for that lead.
+     */
+    private boolean outlastsWizards(int leader) {
+        long target = hands[targetSeat];
+        long leaderHand = hands[leader];
+        long others = live & ~target;
+
+        if ((others & ~leaderHand & WIZARDS_MASK) != 0 || (leaderHand & ~WIZARDS_MASK) == 0
+                || strongCards(target, others) == 0) {
+            return false;
+        }
+        if ((target & WIZARDS_MASK) != 0) {
+            return true;
+        }
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            int shift = suit * CardRegistry.SUIT_SIZE;
+
+            if (suit != trumpSuit && (leaderHand >>> shift & SUIT_BITS) != 0 && (target >>> shift & SUIT_BITS) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // a jester that is no trump only wins a trick where every other seat plays a jester too
+    private int deadJesters() {
+        if (jesterTrump) {
+            return 0;
+        }
+        for (int seat = 0; seat < seatAmount; seat++) {
+            if (seat != targetSeat && (hands[seat] & JESTERS_MASK) == 0) {
+                return Long.bitCount(hands[targetSeat] & JESTERS_MASK);
+            }
+        }
+        return 0;
+    }
+
+    private void play(int depth, int seat, int card, int playedToTrick) {
+        played[depth] = card;
+
+        if (playedToTrick == 0 || (TrickRules.beatersOf(winningCards[depth - 1], trumpIndex) & 1L << card) != 0) {
+            winningCards[depth] = card;
+            winnerSeats[depth] = seat;
+        } else {
+            winningCards[depth] = winningCards[depth - 1];
+            winnerSeats[depth] = winnerSeats[depth - 1];
+        }
+    }
+
+    /**
+     * Writes the distinct legal cards of {@code seat} to its slice of {@link #moves}: the preferred card, then
+     * cards that take the trick first when the target wants to win it, cheap cards first otherwise.
+     *
+     * @param duck the target seat wants to lose tricks and the others to give them
+     * @return the amount of moves
+     */
+    private int orderMoves(int seat, int playedToTrick, int depth, int preferredMove, boolean duck) {
+        long hand = hands[seat];
+        long legal = playedToTrick == 0 ? hand : legalMoves(hand, played[depth - playedToTrick]);
+        long distinct = distinctMoves(legal, hand, live);
+
+        long beaters = 0L;
+        boolean wantsTrick = !duck && seat == targetSeat;
+
+        if (playedToTrick > 0) {
+            beaters = TrickRules.beatersOf(winningCards[depth - 1], trumpIndex);
+            // opponents want the trick while the target holds it
+            wantsTrick |= !duck && winnerSeats[depth - 1] == targetSeat;
+        }
+
+        int firstMove = depth * DECK_SIZE;
+        int moveCount = 0;
+
+        for (long rest = distinct; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+            int score;
+
+            // lower is tried first: leads from the top (from the bottom when ducking), then
+            // the cheapest card doing what the seat wants, then the rest with the most useless card first
+            if (card == preferredMove) {
+                score = Integer.MIN_VALUE;
+            } else if (playedToTrick == 0) {
+                score = (int) -Math.min(history[seat * DECK_SIZE + card], Integer.MAX_VALUE);
+            } else if (((beaters & 1L << card) != 0) == wantsTrick) {
+                score = strength[card];
+            } else {
+                score = 1000 + (wantsTrick ? strength[card] : -strength[card]);
+            }
+
+            // insertion sort by ascending score
+            int position = firstMove + moveCount++;
+            while (position > firstMove && scores[position - 1] > score) {
+                moves[position] = moves[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            moves[position] = card;
+            scores[position] = score;
+        }
+        return moveCount;
+    }
+
+    // the same cards as TrickRules.legalResponseMask
+    private static long legalMoves(long hand, int led) {
+        long follow = FOLLOW_MASKS[led];
+
+        return (hand & follow) == 0 ? hand : hand & (follow | WIZARDS_MASK | JESTERS_MASK);
+    }
+
+    /**
+     * Keeps one card of every group of equivalent legal cards: the lowest of each run of suit cards held by
+     * {@code hand} with no other live card of the suit between them, one wizard and one jester.
+     */
+    private static long distinctMoves(long legal, long hand, long live) {
+        long distinct = legal & ~(WIZARDS_MASK | JESTERS_MASK);
+        distinct |= Long.lowestOneBit(legal & WIZARDS_MASK) | Long.lowestOneBit(legal & JESTERS_MASK);
+
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            int shift = suit * CardRegistry.SUIT_SIZE;
+            long suitLegal = distinct >>> shift & SUIT_BITS;
+
+            if (Long.bitCount(suitLegal) < 2) {
+                continue;
+            }
+            long suitLive = live >>> shift & SUIT_BITS;
+            long suitHand = hand >>> shift & SUIT_BITS;
+
+            for (long rest = suitLegal; rest != 0; rest &= rest - 1) {
+                long bit = Long.lowestOneBit(rest);
+                long below = suitLive & (bit - 1);
+
+                // the next lower live card is our own, so this card only extends its run
+                if (below != 0 && (suitHand & Long.highestOneBit(below)) != 0) {
+                    distinct &= ~(bit << shift);
+                }
+            }
+        }
+        return distinct;
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Solved endgames read from a memory-mapped file written by {@link EndgameTablebaseGenerator}: the last two tricks
+ * of a round with 4 seats, the last three with 3 seats. An entry is a position at a trick boundary with up to the
+ * file's {@link #getMaxCards()} cards per hand. For every seat and every amount of tricks it may still need, it holds
+ * how close the seat can get to that amount when all other seats play against it, as
+ * {@link DoubleDummySolver#solveMiss} finds it, and for the leader the lead that gets that close. The most tricks a
+ * seat can force and the fewest it can be held to follow from the misses of needing all or none.
+ * <p>
+ * A bid is judged per seat: what the other seats need is not part of an entry, since several seats playing for
+ * their own bids is no longer a game of one seat against the rest. Needs below zero or above the tricks left are
+ * read from the nearest stored need, as every further trick won only moves the seat away from or towards it.
+ * <p>
+ * Positions are keyed by {@link #positionKey(long[], int, CardType)}, which only keeps what decides the play:
+ * seats relative to the leader, suit cards by rank among the live cards of their suit, the non-trump suits in
+ * any order. Only a lookup at a trick boundary, {@link #bestLead} included, is a single hash probe sequence in the
+ * file. A position inside a trick is not stored: the rest of the trick is expanded over every legal card, one
+ * lookup per way to finish it, up to 8 with 4 seats and 2 cards and up to 9 with 3 seats and 3 cards. Instances are
+ * immutable and can be shared between threads.
+ * <p>
+ * {@link #MAX_CARDS} is the limit of the file format, not of what is practical to generate: 4 seats with 2 cards
+ * and 3 seats with 3 are each about 600 thousand positions, 4 seats with 3 cards would be over 10^9. Earlier tricks
+ * are left to the solver.
+ */
+public class EndgameTablebase {
+    public static final int MAX_CARDS = 3;
+
+    static final int MAGIC = 0x575A5442;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 32;
+    static final int SLOT_BYTES = 2 * Long.BYTES;
+
+    private static final long WIZARDS_MASK = CardRegistry.typeMask(CardType.WIZARD);
+    private static final long JESTERS_MASK = CardRegistry.typeMask(CardType.JESTER);
+    private static final long SUIT_BITS = (1L << CardRegistry.SUIT_SIZE) - 1;
+    private static final int MAX_SEATS = DoubleDummySolver.MAX_SEATS;
+
+    // an entry: per seat relative to the leader and need 0..MAX_CARDS the miss, then per need the best lead of the
+    // leader as an index into canonicalHand, both in FIELD_BITS
+    private static final int FIELD_BITS = 2;
+    private static final int FIELD_MASK = (1 << FIELD_BITS) - 1;
+    private static final int LEAD_SHIFT = MAX_SEATS * (MAX_CARDS + 1) * FIELD_BITS;
+
+    private static final long SUIT_STREAM = 1L;
+    private static final long TRUMP_SUIT_STREAM = 2L;
+
+    private static final long[] RANK_KEYS = new long[CardRegistry.SUIT_SIZE * MAX_SEATS];
+    private static final long[] SPECIAL_KEYS = new long[2 * MAX_SEATS * (CardRegistry.SPECIAL_COPIES + 1)];
+    // no trump, a colored trump, a jester as trump card
+    private static final long[] TRUMP_KEYS = new long[3];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x7AB1EBA5EL);
+
+        for (long[] keys : new long[][]{RANK_KEYS, SPECIAL_KEYS, TRUMP_KEYS}) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+    }
+
+    private final ByteBuffer slots;
+    private final int seatAmount;
+    private final int maxCards;
+    private final int slotMask;
+    private final int entries;
+
+    private EndgameTablebase(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not an endgame tablebase of version " + VERSION);
+        }
+        seatAmount = buffer.getInt(8);
+        maxCards = buffer.getInt(12);
+        slotMask = (1 << buffer.getInt(16)) - 1;
+        entries = buffer.getInt(20);
+
+        if ((long) HEADER_BYTES + (long) (slotMask + 1) * SLOT_BYTES != buffer.capacity()) {
+            throw new IllegalArgumentException("Tablebase size does not match its header");
+        }
+        slots = buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static EndgameTablebase open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new EndgameTablebase(buffer.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public int getSeatAmount() {
+        return seatAmount;
+    }
+
+    public int getMaxCards() {
+        return maxCards;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return whether positions with this many cards in the leader's hand are in the table
+     */
+    public boolean covers(int seatAmount, int cardsAmount) {
+        return seatAmount == this.seatAmount && cardsAmount <= maxCards;
+    }
+
+    /**
+     * Same arguments and result as {@link DoubleDummySolver#solveMiss}. The hands are changed during the call and
+     * restored.
+     *
+     * @return the miss or -1 if a position is missing from the table
+     */
+    public int miss(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat, int need) {
+        return expand(hands, trumpCardType, leader, Arrays.copyOf(currentTrick, hands.length), currentTrick.length,
+                targetSeat, need);
+    }
+
+    /**
+     * Same arguments and result as {@link DoubleDummySolver#solve(long[], CardType, int, int[], int)}.
+     *
+     * @return the tricks or -1 if a position is missing from the table
+     */
+    public int mostTricks(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat) {
+        int remaining = Long.bitCount(hands[leader]) + (currentTrick.length == 0 ? 0 : 1);
+        int miss = miss(hands, trumpCardType, leader, currentTrick, targetSeat, remaining);
+
+        return miss < 0 ? -1 : remaining - miss;
+    }
+
+    /**
+     * Same arguments and result as {@link DoubleDummySolver#solveFewest(long[], CardType, int, int[], int)}.
+     *
+     * @return the tricks or -1 if a position is missing from the table
+     */
+    public int fewestTricks(long[] hands, CardType trumpCardType, int leader, int[] currentTrick, int targetSeat) {
+        return miss(hands, trumpCardType, leader, currentTrick, targetSeat, 0);
+    }
+
+    /**
+     * @param need tricks the leader still has to win to make its bid
+     * @return the card the leader leads to get closest to {@code need}, or -1 if the position is missing from the
+     * table
+     */
+    public int bestLead(long[] hands, CardType trumpCardType, int leader, int need) {
+        int tricks = Long.bitCount(hands[leader]);
+
+        if (tricks == 0 || !covers(hands.length, tricks)) {
+            return -1;
+        }
+        int slot = find(positionKey(hands, leader, trumpCardType));
+
+        if (slot < 0) {
+            return -1;
+        }
+        int lead = (int) (slots.getLong(slot * SLOT_BYTES + Long.BYTES) >>> leadShift(Math.clamp(need, 0, tricks))
+                & FIELD_MASK);
+        return canonicalHand(hands, leader, trumpCardType)[lead];
+    }
+
+    /**
+     * Plays the current trick to its end with every seat choosing its best card, then reads the table.
+     * {@code trick} has room for a full trick, its first {@code played} cards are on the table.
+     */
+    private int expand(long[] hands, CardType trumpCardType, int leader, int[] trick, int played, int targetSeat,
+                       int need) {
+        if (played == 0) {
+            return hands[leader] == 0 ? Math.abs(need) : lookup(hands, trumpCardType, leader, targetSeat, need);
+        }
+        if (played == hands.length) {
+            int trumpIndex = TrickRules.trumpIndex(trumpCardType);
+            int winningIndex = 0;
+
+            for (int playIndex = 1; playIndex < played; playIndex++) {
+                if ((TrickRules.beatersOf(trick[winningIndex], trumpIndex) & 1L << trick[playIndex]) != 0) {
+                    winningIndex = playIndex;
+                }
+            }
+            int winner = (leader + winningIndex) % hands.length;
+            return expand(hands, trumpCardType, winner, trick, 0, targetSeat, need - (winner == targetSeat ? 1 : 0));
+        }
+
+        int seat = (leader + played) % hands.length;
+        // the target gets as close to its need as it can, every other seat keeps it as far as they can
+        boolean maximizing = seat != targetSeat;
+        long legal = TrickRules.legalResponseMask(hands[seat], CardRegistry.getCard(trick[0]));
+        int best = -1;
+
+        for (long rest = legal; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+            hands[seat] &= ~(1L << card);
+            trick[played] = card;
+
+            int value = expand(hands, trumpCardType, leader, trick, played + 1, targetSeat, need);
+            hands[seat] |= 1L << card;
+
+            if (value < 0) {
+                return -1;
+            }
+            if (best < 0 || (maximizing ? value > best : value < best)) {
+                best = value;
+            }
+        }
+        return best;
+    }
+
+    private int lookup(long[] hands, CardType trumpCardType, int leader, int targetSeat, int need) {
+        int tricks = Long.bitCount(hands[leader]);
+
+        if (!covers(hands.length, tricks)) {
+            return -1;
+        }
+        int slot = find(positionKey(hands, leader, trumpCardType));
+
+        if (slot < 0) {
+            return -1;
+        }
+        int storedNeed = Math.clamp(need, 0, tricks);
+        long value = slots.getLong(slot * SLOT_BYTES + Long.BYTES);
+
+        return (int) (value >>> missShift((targetSeat - leader + hands.length) % hands.length, storedNeed) & FIELD_MASK)
+                + Math.abs(need - storedNeed);
+    }
+
+    static int missShift(int relativeSeat, int need) {
+        return (relativeSeat * (MAX_CARDS + 1) + need) * FIELD_BITS;
+    }
+
+    static int leadShift(int need) {
+        return LEAD_SHIFT + need * FIELD_BITS;
+    }
+
+    // the slot of the key, or -1
+    private int find(long key) {
+        for (int slot = slotOf(key, slotMask); ; slot = slot + 1 & slotMask) {
+            long storedKey = slots.getLong(slot * SLOT_BYTES);
+
+            if (storedKey == key) {
+                return slot;
+            }
+            if (storedKey == 0) {
+                return -1;
+            }
+        }
+    }
+
+    static int slotOf(long key, int slotMask) {
+        return (int) SeedSequence.split(key, 0) & slotMask;
+    }
+
+    /**
+     * @return a key that is the same for positions differing only by suit names, by the numbers of the played
+     * cards, by which copy of a wizard or jester a seat holds, or by seat numbers relative to the leader; never 0
+     */
+    public static long positionKey(long[] hands, int leader, CardType trumpCardType) {
+        int seatAmount = hands.length;
+        int trumpSuit = trumpSuitOf(trumpCardType);
+        long key = TRUMP_KEYS[trumpCardType == CardType.JESTER ? 2 : trumpSuit >= 0 ? 1 : 0];
+        long live = liveCards(hands);
+
+        for (int relativeSeat = 0; relativeSeat < seatAmount; relativeSeat++) {
+            long hand = hands[(leader + relativeSeat) % seatAmount];
+
+            key ^= SPECIAL_KEYS[relativeSeat * (CardRegistry.SPECIAL_COPIES + 1) + Long.bitCount(hand & WIZARDS_MASK)];
+            key ^= SPECIAL_KEYS[(MAX_SEATS + relativeSeat) * (CardRegistry.SPECIAL_COPIES + 1)
+                    + Long.bitCount(hand & JESTERS_MASK)];
+        }
+
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            // non-trump suits are summed after mixing, so their order does not matter
+            key += SeedSequence.split(suitKey(hands, leader, live, suit), suit == trumpSuit ? TRUMP_SUIT_STREAM : SUIT_STREAM);
+        }
+        return key == 0 ? 1 : key;
+    }
+
+    /**
+     * The cards of the leader in an order that does not depend on what {@link #positionKey} ignores: wizards,
+     * jesters, trumps, then the other suits by their key, each suit from its lowest card. Suits with the same key
+     * play alike, so their order does not matter.
+     */
+    static int[] canonicalHand(long[] hands, int leader, CardType trumpCardType) {
+        long hand = hands[leader];
+        int trumpSuit = trumpSuitOf(trumpCardType);
+        int[] cards = new int[Long.bitCount(hand)];
+        int count = 0;
+
+        for (long rest = hand & (WIZARDS_MASK | JESTERS_MASK); rest != 0; rest &= rest - 1) {
+            cards[count++] = Long.numberOfTrailingZeros(rest);
+        }
+
+        long live = liveCards(hands);
+        long[] suitKeys = new long[CardRegistry.SUITS_COUNT];
+        int[] suits = new int[CardRegistry.SUITS_COUNT];
+
+        // insertion sort, the trump suit first
+        for (int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++) {
+            long suitKey = suitKey(hands, leader, live, suit);
+            int position = suit;
+
+            while (position > 0 && suits[position - 1] != trumpSuit
+                    && (suit == trumpSuit || suitKeys[position - 1] > suitKey)) {
+                suits[position] = suits[position - 1];
+                suitKeys[position] = suitKeys[position - 1];
+                position--;
+            }
+            suits[position] = suit;
+            suitKeys[position] = suitKey;
+        }
+
+        for (int suit : suits) {
+            for (long rest = hand >>> suit * CardRegistry.SUIT_SIZE & SUIT_BITS; rest != 0; rest &= rest - 1) {
+                cards[count++] = suit * CardRegistry.SUIT_SIZE + Long.numberOfTrailingZeros(rest);
+            }
+        }
+        return cards;
+    }
+
+    // a wizard as trump card leaves the round without trump
+    private static int trumpSuitOf(CardType trumpCardType) {
+        return trumpCardType != null && CardRegistry.isSuit(trumpCardType) ? trumpCardType.ordinal() : -1;
+    }
+
+    private static long liveCards(long[] hands) {
+        long live = 0L;
+
+        for (long hand : hands) {
+            live |= hand;
+        }
+        return live;
+    }
+
+    // the live cards of the suit by rank and owner relative to the leader
+    private static long suitKey(long[] hands, int leader, long live, int suit) {
+        int seatAmount = hands.length;
+        int shift = suit * CardRegistry.SUIT_SIZE;
+        long suitKey = 0L;
+        int rank = 0;
+
+        for (long rest = live >>> shift & SUIT_BITS; rest != 0; rest &= rest - 1) {
+            int card = shift + Long.numberOfTrailingZeros(rest);
+            int relativeSeat = 0;
+
+            while ((hands[(leader + relativeSeat) % seatAmount] & 1L << card) == 0) {
+                relativeSeat++;
+            }
+            suitKey ^= RANK_KEYS[rank++ * MAX_SEATS + relativeSeat];
+        }
+        return suitKey;
+    }
+}
@@ -0,0 +1,271 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Offline writer of {@link EndgameTablebase} files. Enumerates every canonical position at a trick boundary for
+ * one seat amount and 1..maxCards cards per hand, solves it for every seat and need with
+ * {@link DoubleDummySolver#solveMiss}, the leader once per lead, and writes an open-addressing table at most half
+ * full.
+ * <p>
+ * Positions are built from the smallest cards that realize them: the leader is seat 0, a colored trump is
+ * YELLOW, the other suits are filled from their low end and ordered by size, wizards and jesters are dealt
+ * without regard to their copy. Positions that still coincide, e.g. by two suits of the same size, are solved
+ * once. The amount grows fast: 4 seats with 2 cards make about 600 thousand positions, with 3 cards over 10^9.
+ * <pre>
+ *   java WizardGame.handlers.EndgameTablebaseGenerator endgame-4.tb 4 2
+ * </pre>
+ */
+public class EndgameTablebaseGenerator {
+    private static final int INITIAL_SLOT_BITS = 16;
+    private static final CardType[] TRUMP_CLASSES = {null, CardType.YELLOW, CardType.JESTER};
+
+    private final int seatAmount;
+    private final int maxCards;
+    private final DoubleDummySolver solver = new DoubleDummySolver();
+
+    private long[] keys = new long[1 << INITIAL_SLOT_BITS];
+    private long[] values = new long[1 << INITIAL_SLOT_BITS];
+    private int entries;
+
+    // the position being built
+    private final long[] hands;
+    private final int[] handSizes;
+    private final int[] slotCards = new int[CardRegistry.DECK_SIZE];
+    private final int[] slotTypes = new int[CardRegistry.DECK_SIZE];
+    private CardType trumpCardType;
+
+    public EndgameTablebaseGenerator(int seatAmount, int maxCards) {
+        if (seatAmount < 2 || seatAmount > DoubleDummySolver.MAX_SEATS) {
+            throw new IllegalArgumentException("Seat amount must be in 2.." + DoubleDummySolver.MAX_SEATS);
+        }
+        if (maxCards < 1 || maxCards > EndgameTablebase.MAX_CARDS || seatAmount * maxCards > CardRegistry.DECK_SIZE) {
+            throw new IllegalArgumentException("Cards per hand must be in 1.." + EndgameTablebase.MAX_CARDS);
+        }
+        this.seatAmount = seatAmount;
+        this.maxCards = maxCards;
+
+        hands = new long[seatAmount];
+        handSizes = new int[seatAmount];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: EndgameTablebaseGenerator <file> <seats> [max cards]");
+            return;
+        }
+        int maxCards = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        EndgameTablebaseGenerator generator = new EndgameTablebaseGenerator(Integer.parseInt(args[1]), maxCards);
+
+        long start = System.nanoTime();
+        generator.generate();
+        generator.write(Path.of(args[0]));
+
+        System.out.printf("%d positions in %.1f s%n", generator.entries, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Opens the table at {@code path}, generating and writing it first if the file does not exist.
+     */
+    public static EndgameTablebase openOrGenerate(Path path, int seatAmount, int maxCards) throws IOException {
+        if (!Files.exists(path)) {
+            EndgameTablebaseGenerator generator = new EndgameTablebaseGenerator(seatAmount, maxCards);
+            generator.generate();
+            generator.write(path);
+        }
+        return EndgameTablebase.open(path);
+    }
+
+    public void generate() {
+        for (CardType trumpClass : TRUMP_CLASSES) {
+            trumpCardType = trumpClass;
+
+            for (int cards = 1; cards <= maxCards; cards++) {
+                int before = entries;
+                enumerateTypes(cards);
+                System.out.printf("trump %s, %d cards: %d positions%n", trumpClass, cards, entries - before);
+            }
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        int slotBits = Integer.numberOfTrailingZeros(keys.length);
+        ByteBuffer buffer = ByteBuffer.allocate(EndgameTablebase.HEADER_BYTES + keys.length * EndgameTablebase.SLOT_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(EndgameTablebase.MAGIC).putInt(EndgameTablebase.VERSION).putInt(seatAmount).putInt(maxCards)
+                .putInt(slotBits).putInt(entries).putLong(0L);
+
+        for (int slot = 0; slot < keys.length; slot++) {
+            buffer.putLong(keys[slot]).putLong(values[slot]);
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    // splits the cards into wizards, jesters, trumps and the other suits by size, largest first
+    private void enumerateTypes(int cards) {
+        int total = seatAmount * cards;
+        boolean coloredTrump = trumpCardType != null && CardRegistry.isSuit(trumpCardType);
+
+        for (int wizards = 0; wizards <= Math.min(CardRegistry.SPECIAL_COPIES, total); wizards++) {
+            for (int jesters = 0; jesters <= Math.min(CardRegistry.SPECIAL_COPIES, total - wizards); jesters++) {
+                int suitCards = total - wizards - jesters;
+                int maxTrumps = coloredTrump ? Math.min(CardRegistry.SUIT_SIZE, suitCards) : 0;
+
+                for (int trumps = 0; trumps <= maxTrumps; trumps++) {
+                    int slots = 0;
+
+                    for (int i = 0; i < wizards; i++) {
+                        slotCards[slots] = CardRegistry.WIZARD_OFFSET + i;
+                        slotTypes[slots++] = CardType.WIZARD.ordinal();
+                    }
+                    for (int i = 0; i < jesters; i++) {
+                        slotCards[slots] = CardRegistry.JESTER_OFFSET + i;
+                        slotTypes[slots++] = CardType.JESTER.ordinal();
+                    }
+                    for (int i = 0; i < trumps; i++) {
+                        slotCards[slots] = i;
+                        slotTypes[slots++] = 0;
+                    }
+                    enumerateSuits(cards, slots, suitCards - trumps, coloredTrump ? 1 : 0,
+                            CardRegistry.SUIT_SIZE);
+                }
+            }
+        }
+    }
+
+    private void enumerateSuits(int cards, int slots, int cardsLeft, int suit, int maxSize) {
+        if (cardsLeft == 0) {
+            Arrays.fill(hands, 0L);
+            Arrays.fill(handSizes, 0);
+            assignOwners(cards, slots, 0);
+            return;
+        }
+        if (suit == CardRegistry.SUITS_COUNT) {
+            return;
+        }
+        for (int size = Math.min(maxSize, cardsLeft); size >= 1; size--) {
+            for (int i = 0; i < size; i++) {
+                slotCards[slots + i] = suit * CardRegistry.SUIT_SIZE + i;
+                slotTypes[slots + i] = suit;
+            }
+            enumerateSuits(cards, slots + size, cardsLeft - size, suit + 1, size);
+        }
+    }
+
+    // copies of wizards and jesters are alike, so their owners only go up
+    private void assignOwners(int cards, int slots, int slot) {
+        if (slot == slots) {
+            solvePosition();
+            return;
+        }
+        boolean special = slotTypes[slot] >= CardRegistry.SUITS_COUNT;
+        int firstSeat = special && slot > 0 && slotTypes[slot - 1] == slotTypes[slot]
+                ? Long.numberOfTrailingZeros(ownerOf(slotCards[slot - 1])) : 0;
+
+        for (int seat = firstSeat; seat < seatAmount; seat++) {
+            if (handSizes[seat] == cards) {
+                continue;
+            }
+            hands[seat] |= 1L << slotCards[slot];
+            handSizes[seat]++;
+
+            assignOwners(cards, slots, slot + 1);
+
+            hands[seat] &= ~(1L << slotCards[slot]);
+            handSizes[seat]--;
+        }
+    }
+
+    // as a single bit of the seat
+    private long ownerOf(int card) {
+        for (int seat = 0; seat < seatAmount; seat++) {
+            if ((hands[seat] & 1L << card) != 0) {
+                return 1L << seat;
+            }
+        }
+        throw new IllegalStateException("Card " + card + " has no owner");
+    }
+
+    private void solvePosition() {
+        long key = EndgameTablebase.positionKey(hands, 0, trumpCardType);
+        int slot = EndgameTablebase.slotOf(key, keys.length - 1);
+
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return;
+            }
+            slot = slot + 1 & keys.length - 1;
+        }
+
+        int cards = Long.bitCount(hands[0]);
+        int[] leads = EndgameTablebase.canonicalHand(hands, 0, trumpCardType);
+        long value = 0L;
+
+        for (int need = 0; need <= cards; need++) {
+            // the leader gets as close as its best lead does, the first of the closest is stored
+            int bestLead = 0;
+            int bestMiss = Integer.MAX_VALUE;
+
+            for (int lead = 0; lead < leads.length; lead++) {
+                hands[0] &= ~(1L << leads[lead]);
+                int miss = solver.solveMiss(hands, trumpCardType, 0, new int[]{leads[lead]}, 0, need);
+                hands[0] |= 1L << leads[lead];
+
+                if (miss < bestMiss) {
+                    bestLead = lead;
+                    bestMiss = miss;
+                }
+            }
+            value |= (long) bestMiss << EndgameTablebase.missShift(0, need)
+                    | (long) bestLead << EndgameTablebase.leadShift(need);
+
+            for (int seat = 1; seat < seatAmount; seat++) {
+                value |= (long) solver.solveMiss(hands, trumpCardType, 0, new int[0], seat, need)
+                        << EndgameTablebase.missShift(seat, need);
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++entries * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            int slot = EndgameTablebase.slotOf(oldKeys[i], keys.length - 1);
+
+            while (keys[slot] != 0) {
+                slot = slot + 1 & keys.length - 1;
+            }
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -1,90 +1,78 @@
-package WizardGame.handlers;
-
-import WizardGame.DTOs.TrickBidDTO;
-import WizardGame.enums.CardType;
-import WizardGame.enums.TrickBidExists;
-import WizardGame.models.Card;
-import WizardGame.models.CardModel;
-
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
-public class GameManager {
-
-    private final static Set<Card> allPossibleCards = initializeAllPossibleCards();
-
-    public static boolean isFirstToBid(Map<String, TrickBidDTO> bids){
-        boolean isFirst = true;
-
-        for(Map.Entry<String, TrickBidDTO> map : bids.entrySet()){
-            if(map.getValue().trickBidExists().equals(TrickBidExists.YES)){
-                isFirst = false;
-                break;
-            }
-        }
-
-        return isFirst;
-    }
-
-    public static int getMadeBidsAmount(Map<String, TrickBidDTO> bids){
-        int otherBidsCounter = 0;
-
-        for(Map.Entry<String, TrickBidDTO> map : bids.entrySet()){
-            if(map.getValue().trickBidExists().equals(TrickBidExists.YES)){
-                otherBidsCounter++;
-            }
-        }
-
-        return otherBidsCounter;
-    }
-
-    private static Set<Card> initializeAllPossibleCards(){
-        Set<Card> cards = new HashSet<>();
-
-        for(int i = 1; i <= 13; i++){
-            Card blueCard = new Card(IDGenerator.getNextCardId(), CardType.BLUE, i);
-            Card redCard = new Card(IDGenerator.getNextCardId(), CardType.RED, i);
-            Card greenCard = new Card(IDGenerator.getNextCardId(), CardType.GREEN, i);
-            Card yellowCard = new Card(IDGenerator.getNextCardId(), CardType.YELLOW, i);
-
-            cards.add(blueCard);
-            cards.add(redCard);
-            cards.add(greenCard);
-            cards.add(yellowCard);
-        }
-
-        for(int i = 1; i<=4; i++){
-            cards.add(new Card(IDGenerator.getNextCardId(), CardType.JESTER, 0));
-            cards.add(new Card(IDGenerator.getNextCardId(), CardType.WIZARD, 14));
-        }
-        return cards;
-    }
-
-public static Set<Card> findCards(Set<CardModel> cardModels){
-        Set<Card> foundCards = new HashSet<>();
-
-        for(CardModel cardModel : cardModels){
-            CardType cardModelType = cardModel.getModelCardType();
-            int cardModelNumber = cardModel.getModelCardNumber();
-
-            for(Card c : allPossibleCards){
-                if(c.getType().equals(cardModelType) && c.getNumber() == cardModelNumber){
-                    foundCards.add(c);
-                }
-            }
-        }
-        return foundCards;
-}
-public static Card findCard(CardModel cardModel){
-    CardType cardModelType = cardModel.getModelCardType();
-    int cardModelNumber = cardModel.getModelCardNumber();
-
-    return allPossibleCards.stream().filter(c -> c.getNumber() == cardModelNumber
-            && c.getType().equals(cardModelType)).findFirst().get();
-}
-
-    public static Set<Card> getAllPossibleCards() {
-        return allPossibleCards;
-    }
-}
+package WizardGame.handlers;
+
+import WizardGame.DTOs.TrickBidDTO;
+import WizardGame.enums.CardType;
+import WizardGame.enums.TrickBidExists;
+import WizardGame.models.Card;
+import WizardGame.models.CardModel;
+import WizardGame.models.CardSet;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public class GameManager {
+
+    private final static Set<Card> allPossibleCards = initializeAllPossibleCards();
+
+    public static boolean isFirstToBid(Map<String, TrickBidDTO> bids){
+        boolean isFirst = true;
+
+        for(Map.Entry<String, TrickBidDTO> map : bids.entrySet()){
+            if(map.getValue().trickBidExists().equals(TrickBidExists.YES)){
+                isFirst = false;
+                break;
+            }
+        }
+
+        return isFirst;
+    }
+
+    public static int getMadeBidsAmount(Map<String, TrickBidDTO> bids){
+        int otherBidsCounter = 0;
+
+        for(Map.Entry<String, TrickBidDTO> map : bids.entrySet()){
+            if(map.getValue().trickBidExists().equals(TrickBidExists.YES)){
+                otherBidsCounter++;
+            }
+        }
+
+        return otherBidsCounter;
+    }
+
+    /**
+     * @return the points of a round: 20 plus 10 per trick for an exact bid, otherwise -10 per trick of difference
+     */
+    public static int roundScore(int bid, int trickWins){
+        return trickWins == bid ? 20 + bid * 10 : -10 * Math.abs(bid - trickWins);
+    }
+
+    private static Set<Card> initializeAllPossibleCards(){
+        return CardSet.immutableOf(CardSet.FULL_DECK_MASK);
+    }
+
+public static Set<Card> findCards(Set<CardModel> cardModels){
+        Set<Card> foundCards = new HashSet<>();
+
+        for(CardModel cardModel : cardModels){
+            foundCards.addAll(CardRegistry.getCards(cardModel.getModelCardType(), cardModel.getModelCardNumber()));
+        }
+        return foundCards;
+}
+public static Card findCard(CardModel cardModel){
+    CardType cardModelType = cardModel.getModelCardType();
+    int cardModelNumber = cardModel.getModelCardNumber();
+
+    Card card = CardRegistry.getCard(cardModelType, cardModelNumber);
+
+    if(card == null){
+        throw new NoSuchElementException("No card " + cardModelType + " " + cardModelNumber);
+    }
+    return card;
+}
+
+    public static Set<Card> getAllPossibleCards() {
+        return allPossibleCards;
+    }
+}
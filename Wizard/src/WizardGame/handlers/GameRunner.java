@@ -0,0 +1,119 @@
+package WizardGame.handlers;
+
+import WizardGame.contexts.GameContext;
+import WizardGame.enums.HistoryMode;
+import WizardGame.listeners.GameEventListener;
+import WizardGame.models.GameBot;
+import WizardGame.models.SimulationStats;
+import WizardGame.strategies.GameStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays a batch of games on a thread pool. Every game gets fresh strategy instances from the factories,
+ * so strategies may keep mutable state without being thread-safe. Game {@code i} is always played with
+ * the seed {@code SeedSequence.forGame(masterSeed, i)}, so the stats do not depend on the pool size.
+ * Statistics are collected through game events and finished rounds are dropped ({@link HistoryMode#RECENT}).
+ * Each task reuses one context, its bots and its rounds for all of its games.
+ */
+public class GameRunner {
+    private static final int GAMES_PER_TASK = 16;
+
+    private final List<Supplier<? extends GameStrategy>> strategyFactories;
+    private final int totalRoundAmount;
+    private final GameEventListener listener;
+
+    /**
+     * @param strategyFactories one factory per seat, in seat order
+     */
+    public GameRunner(List<Supplier<? extends GameStrategy>> strategyFactories, int totalRoundAmount){
+        this(strategyFactories, totalRoundAmount, GameEventListener.NONE);
+    }
+
+    /**
+     * @param listener gets the events of all games besides the stats, from every thread of the pool
+     */
+    public GameRunner(List<Supplier<? extends GameStrategy>> strategyFactories, int totalRoundAmount,
+                      GameEventListener listener){
+        this.strategyFactories = List.copyOf(strategyFactories);
+        this.totalRoundAmount = totalRoundAmount;
+        this.listener = listener;
+    }
+
+    public SimulationStats run(int games, long masterSeed, int parallelism){
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        try{
+            return run(games, masterSeed, pool);
+        }finally{
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs on a caller-provided executor, e.g. {@code Executors.newVirtualThreadPerTaskExecutor()}.
+     * The executor is not shut down.
+     */
+    public SimulationStats run(int games, long masterSeed, ExecutorService executor){
+        SimulationStats stats = new SimulationStats(strategyNames());
+        List<Future<?>> tasks = new ArrayList<>();
+
+        for(int from = 0; from < games; from += GAMES_PER_TASK){
+            int firstGame = from;
+            int lastGame = Math.min(games, from + GAMES_PER_TASK);
+
+            tasks.add(executor.submit(() -> playGames(firstGame, lastGame, masterSeed, stats)));
+        }
+
+        for(Future<?> task : tasks){
+            try{
+                task.get();
+            }catch(InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for games", e);
+            }catch(ExecutionException e){
+                if(e.getCause() instanceof RuntimeException runtimeException){
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Game failed", e.getCause());
+            }
+        }
+        return stats;
+    }
+
+    private void playGames(int firstGame, int lastGame, long masterSeed, SimulationStats stats){
+        List<GameBot> gameBots = new ArrayList<>(strategyFactories.size());
+
+        for(Supplier<? extends GameStrategy> strategyFactory : strategyFactories){
+            gameBots.add(new GameBot(strategyFactory.get(), "Bot " + gameBots.size()));
+        }
+
+        GameContext gameContext = new GameContext(gameBots, totalRoundAmount, SeedSequence.forGame(masterSeed, firstGame),
+                HistoryMode.RECENT);
+        GameHandler gameHandler = new GameHandler(gameContext, GameEventListener.of(stats, listener));
+
+        for(int gameIndex = firstGame; gameIndex < lastGame; gameIndex++){
+            if(gameIndex > firstGame){
+                for(GameBot gameBot : gameBots){
+                    gameBot.setGameStrategy(strategyFactories.get(gameBot.getSeat()).get());
+                }
+            }
+            gameHandler.restart(SeedSequence.forGame(masterSeed, gameIndex));
+        }
+    }
+
+    private String[] strategyNames(){
+        String[] names = new String[strategyFactories.size()];
+
+        for(int seat = 0; seat < names.length; seat++){
+            names[seat] = strategyFactories.get(seat).get().getStrategyName();
+        }
+        return names;
+    }
+}
@@ -0,0 +1,96 @@
+package WizardGame.handlers;
+
+/**
+ * Exact probabilities of drawing cards without replacement from the unseen part of the deck,
+ * looked up from tables built once for populations of up to {@link CardRegistry#DECK_SIZE} cards.
+ */
+public class Hypergeometric {
+    private static final int MAX_POPULATION = CardRegistry.DECK_SIZE;
+
+    private static final double[] LOG_FACTORIAL = new double[MAX_POPULATION + 1];
+    // BINOMIAL[n][k] = C(n, k); C(60, 30) is about 1.2e17, so doubles are exact to the last few bits
+    private static final double[][] BINOMIAL = new double[MAX_POPULATION + 1][];
+
+    static {
+        for (int n = 1; n <= MAX_POPULATION; n++) {
+            LOG_FACTORIAL[n] = LOG_FACTORIAL[n - 1] + Math.log(n);
+        }
+
+        for (int n = 0; n <= MAX_POPULATION; n++) {
+            BINOMIAL[n] = new double[n + 1];
+            BINOMIAL[n][0] = 1;
+            BINOMIAL[n][n] = 1;
+
+            for (int k = 1; k < n; k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * @param n at most {@link CardRegistry#DECK_SIZE}
+     * @return C(n, k), 0 for k outside 0..n
+     */
+    public static double binomial(int n, int k) {
+        checkPopulation(n);
+
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        return BINOMIAL[n][k];
+    }
+
+    /**
+     * @param n at most {@link CardRegistry#DECK_SIZE}
+     * @return ln C(n, k), negative infinity for k outside 0..n
+     */
+    public static double logBinomial(int n, int k) {
+        checkPopulation(n);
+
+        if (k < 0 || k > n) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return LOG_FACTORIAL[n] - LOG_FACTORIAL[k] - LOG_FACTORIAL[n - k];
+    }
+
+    private static void checkPopulation(int n) {
+        if (n < 0 || n > MAX_POPULATION) {
+            throw new IllegalArgumentException("Population must be in 0.." + MAX_POPULATION + ": " + n);
+        }
+    }
+
+    /**
+     * @param population unseen cards
+     * @param marked     unseen cards of interest, e.g. the beaters of a card
+     * @param draws      cards held by the opponents; more than the population means all of it
+     * @return probability that none of the drawn cards is marked
+     */
+    public static double probabilityNone(int population, int marked, int draws) {
+        int drawn = Math.min(draws, population);
+
+        if (marked <= 0 || drawn <= 0) {
+            return 1;
+        }
+        if (drawn > population - marked) {
+            return 0;
+        }
+        return BINOMIAL[population - marked][drawn] / BINOMIAL[population][drawn];
+    }
+
+    public static double probabilityAtLeastOne(int population, int marked, int draws) {
+        return 1 - probabilityNone(population, marked, draws);
+    }
+
+    /**
+     * @return probability that exactly {@code hits} of the drawn cards are marked
+     */
+    public static double probabilityExactly(int population, int marked, int draws, int hits) {
+        int drawn = Math.min(draws, population);
+
+        if (hits < 0 || hits > marked || hits > drawn || drawn - hits > population - marked) {
+            return 0;
+        }
+        return Math.exp(logBinomial(marked, hits) + logBinomial(population - marked, drawn - hits)
+                - logBinomial(population, drawn));
+    }
+}
@@ -0,0 +1,161 @@
+package WizardGame.handlers;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe memo of probability results, see {@link ProbabilityCalculator#setCache(ProbabilityCache)}.
+ * A key is two longs: a card mask and a packed descriptor of the rest of the query, both in the canonical suit
+ * labeling of {@link SuitCanonicalizer}.
+ * <p>
+ * Entries live in sets of {@value #WAYS} slots chosen by the key hash. A full set evicts with the CLOCK policy:
+ * the hand skips and clears recently hit slots and replaces the first one that was not hit since its last pass.
+ * Sets are guarded by striped locks, so threads of a tournament rarely wait for each other.
+ */
+public class ProbabilityCache {
+    private static final int WAYS = 4;
+    private static final int MAX_STRIPES = 64;
+    // set in every stored descriptor, so a zeroed slot never matches
+    private static final long VALID = 1L << 63;
+
+    private final int setMask;
+    private final long[] masks;
+    private final long[] descriptors;
+    private final double[] values;
+    private final boolean[] referenced;
+    private final byte[] hands;
+    private final Object[] locks;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity maximum amount of entries, rounded up to a power of two of at least {@value #WAYS}
+     */
+    public ProbabilityCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        int sets = slots / WAYS;
+
+        setMask = sets - 1;
+        masks = new long[slots];
+        descriptors = new long[slots];
+        values = new double[slots];
+        referenced = new boolean[slots];
+        hands = new byte[sets];
+        locks = new Object[Math.min(sets, MAX_STRIPES)];
+
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return the cached value or NaN on a miss
+     */
+    public double get(long mask, long descriptor) {
+        int set = setOf(mask, descriptor);
+        int first = set * WAYS;
+        long validDescriptor = descriptor | VALID;
+
+        synchronized (locks[set % locks.length]) {
+            for (int slot = first; slot < first + WAYS; slot++) {
+                if (descriptors[slot] == validDescriptor && masks[slot] == mask) {
+                    referenced[slot] = true;
+                    hits.increment();
+                    return values[slot];
+                }
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    public void put(long mask, long descriptor, double value) {
+        int set = setOf(mask, descriptor);
+        int first = set * WAYS;
+        long validDescriptor = descriptor | VALID;
+
+        synchronized (locks[set % locks.length]) {
+            for (int slot = first; slot < first + WAYS; slot++) {
+                if (descriptors[slot] == 0 || descriptors[slot] == validDescriptor && masks[slot] == mask) {
+                    store(slot, mask, validDescriptor, value);
+                    return;
+                }
+            }
+
+            int hand = hands[set];
+
+            while (referenced[first + hand]) {
+                referenced[first + hand] = false;
+                hand = (hand + 1) % WAYS;
+            }
+            store(first + hand, mask, validDescriptor, value);
+            hands[set] = (byte) ((hand + 1) % WAYS);
+            evictions.increment();
+        }
+    }
+
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int set = stripe; set <= setMask; set += locks.length) {
+                    clearSet(set);
+                }
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    public int getCapacity() {
+        return masks.length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double hitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProbabilityCache[capacity=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.2f%%]",
+                getCapacity(), getHits(), getMisses(), getEvictions(), hitRate() * 100);
+    }
+
+    private void store(int slot, long mask, long validDescriptor, double value) {
+        masks[slot] = mask;
+        descriptors[slot] = validDescriptor;
+        values[slot] = value;
+        referenced[slot] = false;
+    }
+
+    private void clearSet(int set) {
+        for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+            descriptors[slot] = 0;
+            referenced[slot] = false;
+        }
+        hands[set] = 0;
+    }
+
+    private int setOf(long mask, long descriptor) {
+        long hash = SeedSequence.split(mask, descriptor);
+        return (int) (hash ^ hash >>> 32) & setMask;
+    }
+}
@@ -1,200 +1,369 @@
-package WizardGame.handlers;
-
-import WizardGame.DTOs.AbstractProbabilityDTO;
-import WizardGame.DTOs.DroppedCardsInTrickDTO;
-import WizardGame.DTOs.ProbabilityCalculatorDTO;
-import WizardGame.enums.CardType;
-import WizardGame.enums.DroppedCardExists;
-import WizardGame.enums.ProbabilityFormat;
-import WizardGame.models.Card;
-
-import java.util.*;
-
-public class ProbabilityCalculator {
-private final static Set<Card> allPossibleCards = GameManager.getAllPossibleCards();
-
-    public static double calculateProbabilityToBeat(ProbabilityCalculatorDTO dto, ProbabilityFormat probabilityFormat){
-boolean isFirstToDrop = dto.isFirstToDrop();
-Set<Card> unusedCards = new HashSet<>(new HashSet<>(allPossibleCards));
-
-unusedCards.removeAll(dto.usedCards());
-unusedCards.removeAll(dto.ownCards());
-unusedCards.remove(dto.trumpCard());
-
-double probability;
-
-        if(isFirstToDrop){
-            probability = calculateProbabilityToWinIfFirstToDrop(dto, unusedCards);
-
-        }else{
-           probability = calculateProbabilityToWinIfNotFirstToDrop(dto, unusedCards);
-        }
-
-if(probabilityFormat.equals(ProbabilityFormat.TOTAL)){
-    return probability * 100;
-}else{
-    return probability;
-}
-
-    }
-
-    private static double calculateProbabilityToWinIfNotFirstToDrop(ProbabilityCalculatorDTO dto, Set<Card> unusedCards){
-        Map<String, DroppedCardsInTrickDTO> droppedCardsInTrickDTOMap = dto.droppedCardsInTrickDTO();
-        Card card = dto.card();
-Card trumpCard = dto.trumpCard();
-CardType trumpCardtype = trumpCard.getType();
-int botCardsNumberAtTrickStart = dto.botCardsNumberAtTrickStart();
-
-        List<Card> droppedCards = new ArrayList<>();
-
-        for(Map.Entry<String, DroppedCardsInTrickDTO> map : droppedCardsInTrickDTOMap.entrySet()){
-            DroppedCardsInTrickDTO droppedCardDTO = map.getValue();
-
-            if(droppedCardDTO.getDroppedCardExists().equals(DroppedCardExists.YES)){
-                Card droppedCard = droppedCardDTO.getDroppedCard();
-                droppedCards.add(droppedCard);
-            }
-        }
-
-        unusedCards.removeAll(new HashSet<>(droppedCards));
-
-        boolean cardCanBeatDroppedCards = CardManager.cardCanBeatAll(card, new HashSet<>(droppedCards), trumpCardtype);
-
-        if(!cardCanBeatDroppedCards){
-            return 0.0;
-        }
-
-
-        List<Card> cardsCanBeat = findCardsCanBeat(unusedCards, card, trumpCardtype);
-int botsNumber = dto.droppedCardsInTrickDTO().size();
-int droppedCardsSize = droppedCards.size();
-int botsNumberNotPlayedInTrick = botsNumber - droppedCardsSize;
-int botCards = botsNumberNotPlayedInTrick * botCardsNumberAtTrickStart;
-if(botsNumberNotPlayedInTrick == 0){
-    return 1;
-}
-        if(unusedCards.isEmpty()){
-            return 0;
-        }
-
-if(card.getType().equals(trumpCardtype) || botCardsNumberAtTrickStart == 1){
-
-    return Math.pow(1 - (double) cardsCanBeat.size() / unusedCards.size(), botsNumberNotPlayedInTrick * botCardsNumberAtTrickStart);
-
-}else{
-
-return getPWin(unusedCards, cardsCanBeat, card, trumpCardtype, botCards);
-}
-    }
-
-
-private static double calculateProbabilityToWinIfFirstToDrop(ProbabilityCalculatorDTO dto, Set<Card> unusedCards){
-        Card firstDroppedCard = dto.card();
-
-        CardType firstDroppedCardType = firstDroppedCard.getType();
-        CardType trumpCardType = dto.trumpCard().getType();
-boolean isLastTrickInRound = dto.botCardsNumberAtTrickStart() == 1;
-
-        int botsNumber = dto.botsNumber();
-int botCardsNumberAtTrickStart = dto.botCardsNumberAtTrickStart();
-
-    if(firstDroppedCardType.equals(CardType.WIZARD))  return 1;
-
-    if(firstDroppedCardType.equals(CardType.JESTER))  return 0;
-
-    List<Card> cardsCanBeat = findCardsCanBeat(unusedCards, dto.card(), trumpCardType);
-    int cardsCanBeatCount = cardsCanBeat.size();
-    int botCards = botCardsNumberAtTrickStart * botsNumber;
-
-    if (cardsCanBeatCount == 0) return 1.0;
-
-
-if(firstDroppedCardType.equals(trumpCardType) || isLastTrickInRound){
-    double pBeatCard = (double) cardsCanBeatCount / unusedCards.size();
-
-    return Math.pow(1-pBeatCard, botCards);
-
-}else{
-
-    return getPWin(unusedCards, cardsCanBeat, firstDroppedCard, trumpCardType, botCards);
-}
-}
-
-    private static double getPNoCardTypes(Set<Card> unusedCards, CardType cardType, int cards) {
-        int cardsOfType = CardManager.countCardsOfType(unusedCards, cardType);
-
-        return Math.pow(1 - (double) cardsOfType / cards, cards);
-    }
-
-
-    private static List<Card> countBeatCardsIfCardTrump(Set<Card> cards, Card card){
-        if(card.getType().equals(CardType.JESTER)){
-            return cards.stream().filter(c -> !c.getType().equals(CardType.JESTER)).toList();
-        }
-    return cards.stream().filter(c -> c.getType().equals(CardType.WIZARD)
-            || c.getNumber() > card.getNumber() && c.getType().equals(card.getType())).toList();
-    }
-
-    private static List<Card> findCardsCanBeat(Set<Card> cards, Card cardToBeat, CardType trumpCardType){
-        CardType cardToBeatType = cardToBeat.getType();
-
-        if(cardToBeatType.equals(trumpCardType)){
-            return countBeatCardsIfCardTrump(cards, cardToBeat);
-        }
-
-        return countBeatCardsIfCardNotTrump(cards, cardToBeat, trumpCardType);
-    }
-
-    private static List<Card> countBeatCardsIfCardNotTrump(Set<Card> cards, Card card, CardType trumpCardType){
-return cards.stream().filter(c -> c.getType().equals(trumpCardType) ||
-        c.getType().equals(card.getType()) && c.getNumber() > card.getNumber() || c.getType().equals(CardType.WIZARD)).toList();
-    }
-
-private static double getPWin(Set<Card> unusedCards, List<Card> cardsCanBeat,
-                              Card card, CardType trumpCardType, int cards){
-
-    double pNoCardTypes = getPNoCardTypes(unusedCards, card.getType(), cards);
-
-    int trumpCardsNumber = cardsCanBeat.stream().filter(c -> c.getType().equals(trumpCardType)).toList().size();
-    int wizardsNumber = cardsCanBeat.stream().filter(c -> c.getType().equals(CardType.WIZARD)).toList().size();
-    int cardToDropTypeBeatCards = cardsCanBeat.size() - trumpCardsNumber - wizardsNumber;
-
-    double base = 1 - (double) trumpCardsNumber / unusedCards.size();
-
-    double pWin1 = 1 - pNoCardTypes *  (1 - Math.pow(base, cards));
-
-    double pWin2 = Math.pow(1- (double) cardToDropTypeBeatCards / unusedCards.size(), cards);
-
-    double pNoWizard = Math.pow(1- (double) wizardsNumber / unusedCards.size(), cards);
-/*
-   System.out.println("   : " + pNoWizard);
-    System.out.println("     : " + pWin1);
-    System.out.println("      : " +pWin2);
-
- */
-
-    double independenceFactor = 0.9;
-    //return pNoWizard * (pWin2 * independenceFactor + pWin1 * (1 - independenceFactor));
-    return pNoWizard * pWin2 * pWin1;
-}
-
-public static double calculateAbstractProbability(AbstractProbabilityDTO dto){
-Set<Card> unusedCards = new HashSet<>(allPossibleCards);
-unusedCards.removeAll(dto.ownCards());
-unusedCards.remove(dto.trumpCard());
-
-    List<Card> cardsCanBeat = CardManager.determineCardsBeatCard(unusedCards, dto.card(), dto.trumpCard().getType());
-
-int botCards = dto.botCardsNumberAtTrickStart() * (dto.botsNumber() - 1);
-
-if(cardsCanBeat.isEmpty()){
-    return 100;
-}
-if(dto.card().getType().equals(CardType.JESTER)) {
-    return 0;
-}
-
-
-return Math.pow(1 - ((double) cardsCanBeat.size() / unusedCards.size()), botCards);
-}
-}
+package WizardGame.handlers;
+
+import WizardGame.DTOs.AbstractProbabilityDTO;
+import WizardGame.DTOs.DroppedCardsInTrickDTO;
+import WizardGame.DTOs.ProbabilityCalculatorDTO;
+import WizardGame.enums.CardType;
+import WizardGame.enums.DroppedCardExists;
+import WizardGame.enums.ProbabilityFormat;
+import WizardGame.enums.ProbabilityModel;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+import WizardGame.models.SuitPermutation;
+
+import java.util.*;
+
+public class ProbabilityCalculator {
+    private static final long TO_BEAT_QUERY = 1;
+    private static final long ABSTRACT_QUERY = 2;
+
+    private static volatile ProbabilityCache cache;
+
+    /**
+     * Puts a memo in front of {@link #calculateProbabilityToBeat} and {@link #calculateAbstractProbability}
+     * for all threads; null turns it off again.
+     */
+    public static void setCache(ProbabilityCache probabilityCache){
+        cache = probabilityCache;
+    }
+
+    public static ProbabilityCache getCache(){
+        return cache;
+    }
+
+    public static double calculateProbabilityToBeat(ProbabilityCalculatorDTO dto, ProbabilityFormat probabilityFormat){
+        return calculateProbabilityToBeat(dto, probabilityFormat, ProbabilityModel.APPROXIMATE);
+    }
+
+    public static double calculateProbabilityToBeat(ProbabilityCalculatorDTO dto, ProbabilityFormat probabilityFormat,
+                                                    ProbabilityModel probabilityModel){
+boolean isFirstToDrop = dto.isFirstToDrop();
+CardSet unusedCards = dto.unseenCards() != null
+        ? CardSet.of(CardSet.maskOf(dto.unseenCards()))
+        : CardManager.unseenCards(dto.ownCards(), dto.trumpCard(), dto.usedCards());
+
+ProbabilityCache probabilityCache = cache;
+long cacheMask = 0;
+long descriptor = -1;
+
+if(probabilityCache != null){
+    cacheMask = unusedCards.mask();
+    int opponents = dto.botsNumber();
+    boolean beatsDropped = true;
+
+    if(!isFirstToDrop){
+        long droppedMask = droppedCardsMask(dto.droppedCardsInTrickDTO());
+
+        // the result only depends on the dropped cards through these three values
+        cacheMask &= ~droppedMask;
+        opponents = dto.droppedCardsInTrickDTO().size() - Long.bitCount(droppedMask);
+        beatsDropped = (TrickRules.beatersOf(dto.card(), dto.trumpCard().getType()) & droppedMask) == 0;
+    }
+    // queries that only differ by suit names have the same answer and share one entry
+    SuitPermutation permutation = SuitCanonicalizer.canonicalize(CardSet.bit(dto.card()), dto.trumpCard(), cacheMask);
+
+    cacheMask = permutation.apply(cacheMask);
+    descriptor = describe(TO_BEAT_QUERY, permutation.apply(dto.card()), permutation.apply(dto.trumpCard()),
+            dto.botCardsNumberAtTrickStart(), opponents, isFirstToDrop, beatsDropped, probabilityModel);
+}
+
+double probability = descriptor < 0 ? Double.NaN : probabilityCache.get(cacheMask, descriptor);
+
+if(Double.isNaN(probability)){
+        if(isFirstToDrop){
+            probability = calculateProbabilityToWinIfFirstToDrop(dto, unusedCards, probabilityModel);
+
+        }else{
+           probability = calculateProbabilityToWinIfNotFirstToDrop(dto, unusedCards, probabilityModel);
+        }
+
+    if(descriptor >= 0){
+        probabilityCache.put(cacheMask, descriptor, probability);
+    }
+}
+
+if(probabilityFormat.equals(ProbabilityFormat.TOTAL)){
+    return probability * 100;
+}else{
+    return probability;
+}
+
+    }
+
+    private static double calculateProbabilityToWinIfNotFirstToDrop(ProbabilityCalculatorDTO dto, Set<Card> unusedCards,
+                                                                     ProbabilityModel probabilityModel){
+        Map<String, DroppedCardsInTrickDTO> droppedCardsInTrickDTOMap = dto.droppedCardsInTrickDTO();
+        Card card = dto.card();
+Card trumpCard = dto.trumpCard();
+CardType trumpCardtype = trumpCard.getType();
+int botCardsNumberAtTrickStart = dto.botCardsNumberAtTrickStart();
+
+        List<Card> droppedCards = new ArrayList<>();
+
+        for(Map.Entry<String, DroppedCardsInTrickDTO> map : droppedCardsInTrickDTOMap.entrySet()){
+            DroppedCardsInTrickDTO droppedCardDTO = map.getValue();
+
+            if(droppedCardDTO.getDroppedCardExists().equals(DroppedCardExists.YES)){
+                Card droppedCard = droppedCardDTO.getDroppedCard();
+                droppedCards.add(droppedCard);
+            }
+        }
+
+        unusedCards.removeAll(droppedCards);
+
+        boolean cardCanBeatDroppedCards = CardManager.cardCanBeatAll(card, new HashSet<>(droppedCards), trumpCardtype);
+
+        if(!cardCanBeatDroppedCards){
+            return 0.0;
+        }
+
+
+        List<Card> cardsCanBeat = findCardsCanBeat(unusedCards, card, trumpCardtype);
+int botsNumber = dto.droppedCardsInTrickDTO().size();
+int droppedCardsSize = droppedCards.size();
+int botsNumberNotPlayedInTrick = botsNumber - droppedCardsSize;
+int botCards = botsNumberNotPlayedInTrick * botCardsNumberAtTrickStart;
+if(botsNumberNotPlayedInTrick == 0){
+    return 1;
+}
+        if(unusedCards.isEmpty()){
+            return 0;
+        }
+
+if(card.getType().equals(trumpCardtype) || botCardsNumberAtTrickStart == 1){
+
+    return noneDrawn(unusedCards.size(), cardsCanBeat.size(), botsNumberNotPlayedInTrick * botCardsNumberAtTrickStart,
+            probabilityModel);
+
+}else{
+
+return getPWin(unusedCards, cardsCanBeat, card, trumpCardtype, botCards, probabilityModel);
+}
+    }
+
+
+private static double calculateProbabilityToWinIfFirstToDrop(ProbabilityCalculatorDTO dto, Set<Card> unusedCards,
+                                                              ProbabilityModel probabilityModel){
+        Card firstDroppedCard = dto.card();
+
+        CardType firstDroppedCardType = firstDroppedCard.getType();
+        CardType trumpCardType = dto.trumpCard().getType();
+boolean isLastTrickInRound = dto.botCardsNumberAtTrickStart() == 1;
+
+        int botsNumber = dto.botsNumber();
+int botCardsNumberAtTrickStart = dto.botCardsNumberAtTrickStart();
+
+    if(firstDroppedCardType.equals(CardType.WIZARD))  return 1;
+
+    if(firstDroppedCardType.equals(CardType.JESTER))  return 0;
+
+    List<Card> cardsCanBeat = findCardsCanBeat(unusedCards, dto.card(), trumpCardType);
+    int cardsCanBeatCount = cardsCanBeat.size();
+    int botCards = botCardsNumberAtTrickStart * botsNumber;
+
+    if (cardsCanBeatCount == 0) return 1.0;
+
+
+if(firstDroppedCardType.equals(trumpCardType) || isLastTrickInRound){
+    return noneDrawn(unusedCards.size(), cardsCanBeatCount, botCards, probabilityModel);
+
+}else{
+
+    return getPWin(unusedCards, cardsCanBeat, firstDroppedCard, trumpCardType, botCards, probabilityModel);
+}
+}
+
+    private static double getPNoCardTypes(Set<Card> unusedCards, CardType cardType, int cards,
+                                          ProbabilityModel probabilityModel) {
+        int cardsOfType = CardManager.countCardsOfType(unusedCards, cardType);
+
+        if(probabilityModel == ProbabilityModel.EXACT){
+            return Hypergeometric.probabilityNone(unusedCards.size(), cardsOfType, cards);
+        }
+        // the original formula, kept as is: divides by the opponents' cards instead of the unseen ones
+        return Math.pow(1 - (double) cardsOfType / cards, cards);
+    }
+
+    // chance that none of the opponents' cards is one of the marked unseen cards
+    private static double noneDrawn(int unseenAmount, int markedAmount, int opponentCards,
+                                    ProbabilityModel probabilityModel){
+        if(probabilityModel == ProbabilityModel.EXACT){
+            return Hypergeometric.probabilityNone(unseenAmount, markedAmount, opponentCards);
+        }
+        return Math.pow(1 - (double) markedAmount / unseenAmount, opponentCards);
+    }
+
+
+    private static List<Card> countBeatCardsIfCardTrump(Set<Card> cards, Card card){
+        if(card.getType().equals(CardType.JESTER)){
+            return cards.stream().filter(c -> !c.getType().equals(CardType.JESTER)).toList();
+        }
+    return cards.stream().filter(c -> c.getType().equals(CardType.WIZARD)
+            || c.getNumber() > card.getNumber() && c.getType().equals(card.getType())).toList();
+    }
+
+    private static List<Card> findCardsCanBeat(Set<Card> cards, Card cardToBeat, CardType trumpCardType){
+        CardType cardToBeatType = cardToBeat.getType();
+
+        if(cardToBeatType.equals(trumpCardType)){
+            return countBeatCardsIfCardTrump(cards, cardToBeat);
+        }
+
+        return countBeatCardsIfCardNotTrump(cards, cardToBeat, trumpCardType);
+    }
+
+    private static List<Card> countBeatCardsIfCardNotTrump(Set<Card> cards, Card card, CardType trumpCardType){
+return cards.stream().filter(c -> c.getType().equals(trumpCardType) ||
+        c.getType().equals(card.getType()) && c.getNumber() > card.getNumber() || c.getType().equals(CardType.WIZARD)).toList();
+    }
+
+private static double getPWin(Set<Card> unusedCards, List<Card> cardsCanBeat,
+                              Card card, CardType trumpCardType, int cards, ProbabilityModel probabilityModel){
+
+    double pNoCardTypes = getPNoCardTypes(unusedCards, card.getType(), cards, probabilityModel);
+
+    int trumpCardsNumber = cardsCanBeat.stream().filter(c -> c.getType().equals(trumpCardType)).toList().size();
+    int wizardsNumber = cardsCanBeat.stream().filter(c -> c.getType().equals(CardType.WIZARD)).toList().size();
+    int cardToDropTypeBeatCards = cardsCanBeat.size() - trumpCardsNumber - wizardsNumber;
+
+    double pNoTrump = noneDrawn(unusedCards.size(), trumpCardsNumber, cards, probabilityModel);
+
+    double pWin1 = 1 - pNoCardTypes *  (1 - pNoTrump);
+
+    double pWin2 = noneDrawn(unusedCards.size(), cardToDropTypeBeatCards, cards, probabilityModel);
+
+    double pNoWizard = noneDrawn(unusedCards.size(), wizardsNumber, cards, probabilityModel);
+/*
+   System.out.println("оппонент не имеет визарда: " + pNoWizard);
+    System.out.println("у оппонента вероятно есть моя карта: " + pWin1);
+    System.out.println("у оппонента нет сильней карта моего типа: " +pWin2);
+
+ */
+
+    double independenceFactor = 0.9;
+    //return pNoWizard * (pWin2 * independenceFactor + pWin1 * (1 - independenceFactor));
+    return pNoWizard * pWin2 * pWin1;
+}
+
+public static double calculateAbstractProbability(AbstractProbabilityDTO dto){
+    return calculateAbstractProbability(dto, ProbabilityModel.APPROXIMATE);
+}
+
+public static double calculateAbstractProbability(AbstractProbabilityDTO dto, ProbabilityModel probabilityModel){
+long unseenMask = dto.unseenCards() != null
+        ? CardSet.maskOf(dto.unseenCards())
+        : CardManager.unseenCards(dto.ownCards(), dto.trumpCard(), Set.of()).mask();
+
+return abstractProbability(dto.card(), unseenMask, dto.trumpCard(), dto.botCardsNumberAtTrickStart(),
+        dto.botsNumber(), probabilityModel, cache);
+}
+
+    /**
+     * Packs everything but the card mask of a query into 24 bits:
+     * card ordinal (6), trump index (3), cards per bot (6), bots (4), first to drop, beats the dropped cards,
+     * model and query type (2).
+     *
+     * @return the descriptor or -1 if a value does not fit, such queries are not cached
+     */
+    private static long describe(long query, Card card, Card trumpCard, int cardsPerBot, int bots,
+                                 boolean isFirstToDrop, boolean beatsDropped, ProbabilityModel probabilityModel){
+        if(cardsPerBot < 0 || cardsPerBot > 63 || bots < 0 || bots > 15){
+            return -1;
+        }
+        return card.getOrdinal()
+                | (long) TrickRules.trumpIndex(trumpCard.getType()) << 6
+                | (long) cardsPerBot << 9
+                | (long) bots << 15
+                | (isFirstToDrop ? 1L : 0L) << 19
+                | (beatsDropped ? 1L : 0L) << 20
+                | (long) probabilityModel.ordinal() << 21
+                | query << 22;
+    }
+
+    private static long droppedCardsMask(Map<String, DroppedCardsInTrickDTO> droppedCardsInTrickDTOMap){
+        long droppedMask = 0L;
+
+        for(DroppedCardsInTrickDTO droppedCardDTO : droppedCardsInTrickDTOMap.values()){
+            if(droppedCardDTO.getDroppedCardExists() == DroppedCardExists.YES){
+                droppedMask |= CardSet.bit(droppedCardDTO.getDroppedCard());
+            }
+        }
+        return droppedMask;
+    }
+
+    /**
+     * {@link #calculateAbstractProbability} for every card of the hand in one pass: the unseen cards and the
+     * trump are resolved once, and each card only needs its beater mask and a bit count. Uses the cache as well.
+     *
+     * @param unseenCards null to derive them from the hand and the trump
+     * @return probabilities in the iteration order of {@code ownCards}
+     */
+    public static double[] evaluateHand(Set<Card> ownCards, Card trumpCard, Set<Card> unseenCards,
+                                        int botCardsNumberAtTrickStart, int botsNumber){
+        return evaluateHand(ownCards, trumpCard, unseenCards, botCardsNumberAtTrickStart, botsNumber,
+                ProbabilityModel.APPROXIMATE);
+    }
+
+    public static double[] evaluateHand(Set<Card> ownCards, Card trumpCard, Set<Card> unseenCards,
+                                        int botCardsNumberAtTrickStart, int botsNumber,
+                                        ProbabilityModel probabilityModel){
+        long unseenMask = unseenCards != null
+                ? CardSet.maskOf(unseenCards)
+                : CardManager.unseenCards(ownCards, trumpCard, Set.of()).mask();
+        ProbabilityCache probabilityCache = cache;
+
+        double[] probabilities = new double[ownCards.size()];
+        int i = 0;
+
+        for(Card card : ownCards){
+            probabilities[i++] = abstractProbability(card, unseenMask, trumpCard, botCardsNumberAtTrickStart, botsNumber,
+                    probabilityModel, probabilityCache);
+        }
+        return probabilities;
+    }
+
+    private static double abstractProbability(Card card, long unseenMask, Card trumpCard, int botCardsNumberAtTrickStart,
+                                              int botsNumber, ProbabilityModel probabilityModel,
+                                              ProbabilityCache probabilityCache){
+        long cacheMask = 0;
+        long descriptor = -1;
+
+        if(probabilityCache != null){
+            SuitPermutation permutation = SuitCanonicalizer.canonicalize(CardSet.bit(card), trumpCard, unseenMask);
+
+            cacheMask = permutation.apply(unseenMask);
+            descriptor = describe(ABSTRACT_QUERY, permutation.apply(card), permutation.apply(trumpCard),
+                    botCardsNumberAtTrickStart, botsNumber, false, false, probabilityModel);
+        }
+
+        if(descriptor >= 0){
+            double probability = probabilityCache.get(cacheMask, descriptor);
+
+            if(!Double.isNaN(probability)){
+                return probability;
+            }
+        }
+
+        double probability = abstractProbability(card, unseenMask, TrickRules.trumpIndex(trumpCard.getType()),
+                botCardsNumberAtTrickStart * (botsNumber - 1), probabilityModel);
+
+        if(descriptor >= 0){
+            probabilityCache.put(cacheMask, descriptor, probability);
+        }
+        return probability;
+    }
+
+    // 100 for a card nobody can beat is kept from the original percentage-based version
+    private static double abstractProbability(Card card, long unseenMask, int trumpIndex, int botCards,
+                                              ProbabilityModel probabilityModel){
+        int beatersAmount = Long.bitCount(TrickRules.beatersOf(card.getOrdinal(), trumpIndex) & unseenMask);
+
+        if(beatersAmount == 0){
+            return 100;
+        }
+        if(card.getType() == CardType.JESTER){
+            return 0;
+        }
+        return noneDrawn(Long.bitCount(unseenMask), beatersAmount, botCards, probabilityModel);
+    }
+}
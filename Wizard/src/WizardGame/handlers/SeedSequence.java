@@ -0,0 +1,34 @@
+package WizardGame.handlers;
+
+/**
+ * Derives independent seeds from a master seed with the SplitMix64 finalizer. Every derived seed depends only
+ * on its parent seed and the stream index, never on the order in which games are run, so results are the same
+ * on one thread or many.
+ */
+public class SeedSequence {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private static final long DEALER_STREAM = -1L;
+
+    public static long split(long seed, long stream){
+        return mix(seed + (stream + 1) * GOLDEN_GAMMA);
+    }
+
+    public static long forGame(long masterSeed, long gameIndex){
+        return split(masterSeed, gameIndex);
+    }
+
+    public static long forDealer(long gameSeed){
+        return split(gameSeed, DEALER_STREAM);
+    }
+
+    public static long forSeat(long gameSeed, int seat, String strategyName){
+        return split(split(gameSeed, seat), strategyName.hashCode());
+    }
+
+    private static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
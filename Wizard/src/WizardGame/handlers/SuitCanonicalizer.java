@@ -0,0 +1,69 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+import WizardGame.models.SuitPermutation;
+
+import java.util.Set;
+
+/**
+ * The colored suits only differ by being trump, so a position can be relabeled to a canonical one: the trump
+ * suit becomes YELLOW and the other suits are ordered by their cards, the hand first and then the unseen cards.
+ * Positions that differ only by suit names get the same canonical masks, which makes tables keyed on them
+ * up to 6 times smaller with a colored trump and up to 24 times without one.
+ * <p>
+ * Apply the returned permutation to everything that belongs to the position and its
+ * {@link SuitPermutation#inverse()} to map canonical answers (e.g. a chosen card) back.
+ */
+public class SuitCanonicalizer {
+    private static final long SUIT_BITS = (1L << CardRegistry.SUIT_SIZE) - 1;
+
+    public static SuitPermutation canonicalize(Set<Card> hand, Card trumpCard, Set<Card> unseenCards){
+        return canonicalize(CardSet.maskOf(hand), trumpCard, CardSet.maskOf(unseenCards));
+    }
+
+    /**
+     * @param trumpCard may be null or a wizard or jester, then all four suits are interchangeable
+     */
+    public static SuitPermutation canonicalize(long hand, Card trumpCard, long unseenMask){
+        CardType trumpType = trumpCard == null ? null : trumpCard.getType();
+        int trumpSuit = trumpType != null && CardRegistry.isSuit(trumpType) ? trumpType.ordinal() : -1;
+
+        int[] suits = new int[CardRegistry.SUITS_COUNT];
+        long[] weights = new long[CardRegistry.SUITS_COUNT];
+        int amount = 0;
+
+        for(int suit = 0; suit < CardRegistry.SUITS_COUNT; suit++){
+            if(suit == trumpSuit){
+                continue;
+            }
+            long weight = suitBits(hand, suit) << CardRegistry.SUIT_SIZE | suitBits(unseenMask, suit);
+            int position = amount++;
+
+            // insertion sort, heaviest first; equal weights keep suit order, they are identical anyway
+            while(position > 0 && weights[position - 1] < weight){
+                suits[position] = suits[position - 1];
+                weights[position] = weights[position - 1];
+                position--;
+            }
+            suits[position] = suit;
+            weights[position] = weight;
+        }
+
+        int[] targets = new int[CardRegistry.SUITS_COUNT];
+        int nextTarget = 0;
+
+        if(trumpSuit >= 0){
+            targets[trumpSuit] = nextTarget++;
+        }
+        for(int i = 0; i < amount; i++){
+            targets[suits[i]] = nextTarget++;
+        }
+        return SuitPermutation.of(targets);
+    }
+
+    private static long suitBits(long mask, int suit){
+        return mask >>> suit * CardRegistry.SUIT_SIZE & SUIT_BITS;
+    }
+}
@@ -0,0 +1,129 @@
+package WizardGame.handlers;
+
+import WizardGame.enums.CardType;
+import WizardGame.models.Card;
+
+import java.util.*;
+
+/**
+ * Single source of the trick-taking rules. For every trump context and every card the set of cards
+ * that beat it is precomputed as a 64-bit mask over card ordinals, so "does A beat B" and
+ * "which cards beat B" are answered with one array load.
+ * <p>
+ * Trump contexts are the six {@link CardType} values plus one extra row for a missing ({@code null}) trump.
+ */
+public class TrickRules {
+    private static final int DECK_SIZE = CardRegistry.DECK_SIZE;
+    private static final int NO_TRUMP_INDEX = CardType.values().length;
+
+    // [trumpIndex * DECK_SIZE + cardToBeat.ordinal] -> mask of cards beating cardToBeat
+    private static final long[] BEATERS = new long[(NO_TRUMP_INDEX + 1) * DECK_SIZE];
+
+    private static final long SPECIAL_CARDS_MASK = CardRegistry.typeMask(CardType.WIZARD)
+            | CardRegistry.typeMask(CardType.JESTER);
+
+    private static final Set<CardType> ALL_TYPES = Collections.unmodifiableSet(EnumSet.allOf(CardType.class));
+    // [CardType.ordinal()] -> the type together with wizards and jesters / every type except it
+    private static final List<Set<CardType>> FOLLOW_TYPES = new ArrayList<>();
+    private static final List<Set<CardType>> ALL_TYPES_EXCEPT = new ArrayList<>();
+
+    static {
+        for (CardType cardType : CardType.values()) {
+            FOLLOW_TYPES.add(Collections.unmodifiableSet(EnumSet.of(cardType, CardType.WIZARD, CardType.JESTER)));
+            ALL_TYPES_EXCEPT.add(Collections.unmodifiableSet(EnumSet.complementOf(EnumSet.of(cardType))));
+        }
+
+        CardType[] trumpTypes = CardType.values();
+
+        for (int trumpIndex = 0; trumpIndex <= NO_TRUMP_INDEX; trumpIndex++) {
+            CardType trumpType = trumpIndex == NO_TRUMP_INDEX ? null : trumpTypes[trumpIndex];
+
+            for (int toBeat = 0; toBeat < DECK_SIZE; toBeat++) {
+                Card cardToBeat = CardRegistry.getCard(toBeat);
+                long beaters = 0L;
+
+                for (int beat = 0; beat < DECK_SIZE; beat++) {
+                    if (deriveCanBeat(CardRegistry.getCard(beat), cardToBeat, trumpType)) {
+                        beaters |= 1L << beat;
+                    }
+                }
+                BEATERS[trumpIndex * DECK_SIZE + toBeat] = beaters;
+            }
+        }
+    }
+
+    public static boolean canBeat(Card beatCard, Card cardToBeat, CardType trumpCardType) {
+        return (beatersOf(cardToBeat, trumpCardType) & (1L << beatCard.getOrdinal())) != 0;
+    }
+
+    /**
+     * @return mask of every card in the deck that beats {@code cardToBeat} under the given trump
+     */
+    public static long beatersOf(Card cardToBeat, CardType trumpCardType) {
+        return BEATERS[trumpIndex(trumpCardType) * DECK_SIZE + cardToBeat.getOrdinal()];
+    }
+
+    public static long beatersOf(int cardToBeatOrdinal, int trumpIndex) {
+        return BEATERS[trumpIndex * DECK_SIZE + cardToBeatOrdinal];
+    }
+
+    /**
+     * @return the card that holds the trick after {@code droppedCard} is played on {@code currentWinningCard}
+     */
+    public static Card winningCard(Card droppedCard, Card currentWinningCard, CardType trumpCardType) {
+        return canBeat(droppedCard, currentWinningCard, trumpCardType) ? droppedCard : currentWinningCard;
+    }
+
+    /**
+     * @return the cards of {@code hand} that may be played on {@code firstDroppedCard}: the led suit, wizards
+     * and jesters if the hand holds the led suit, otherwise the whole hand
+     */
+    public static long legalResponseMask(long hand, Card firstDroppedCard) {
+        CardType firstDroppedCardType = firstDroppedCard.getType();
+
+        if (!CardRegistry.isSuit(firstDroppedCardType)) {
+            return hand;
+        }
+
+        long suitMask = CardRegistry.typeMask(firstDroppedCardType);
+
+        return (hand & suitMask) == 0 ? hand : hand & (suitMask | SPECIAL_CARDS_MASK);
+    }
+
+    /**
+     * Same result as {@link CardManager#defineAllowedResponseCardTypes(Card, Set)}, as a shared read-only set.
+     */
+    public static Set<CardType> allowedResponseTypes(long hand, Card firstDroppedCard) {
+        CardType firstDroppedCardType = firstDroppedCard.getType();
+
+        if ((hand & CardRegistry.typeMask(firstDroppedCardType)) == 0) {
+            return ALL_TYPES_EXCEPT.get(firstDroppedCardType.ordinal());
+        }
+        return CardRegistry.isSuit(firstDroppedCardType) ? FOLLOW_TYPES.get(firstDroppedCardType.ordinal()) : ALL_TYPES;
+    }
+
+    public static int trumpIndex(CardType trumpCardType) {
+        return trumpCardType == null ? NO_TRUMP_INDEX : trumpCardType.ordinal();
+    }
+
+    // Wizards beat everything except an earlier wizard, any card beats a jester, higher cards win within a type,
+    // and a trump beats any other type.
+    private static boolean deriveCanBeat(Card beatCard, Card cardToBeat, CardType trumpCardType) {
+        CardType beatCardType = beatCard.getType();
+        CardType cardToBeatType = cardToBeat.getType();
+
+        if (cardToBeatType == CardType.WIZARD) {
+            return false;
+        }
+        if (beatCardType == CardType.WIZARD) {
+            return true;
+        }
+        if (beatCardType == cardToBeatType) {
+            return beatCard.getNumber() > cardToBeat.getNumber();
+        }
+        if (cardToBeatType == CardType.JESTER) {
+            return true;
+        }
+        return beatCardType == trumpCardType;
+    }
+}
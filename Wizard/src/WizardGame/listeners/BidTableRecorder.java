@@ -0,0 +1,59 @@
+package WizardGame.listeners;
+
+import WizardGame.contexts.GameContext;
+import WizardGame.contexts.RoundContext;
+import WizardGame.handlers.BidFeatures;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts, per {@link BidFeatures} cell of a dealt hand, how many tricks the hand went on to win. The hands are
+ * read when they are dealt and counted when the round is scored; parallel games can share one instance.
+ */
+public class BidTableRecorder implements GameEventListener {
+    // by cell, rounds by tricks won; created on the first hand of the cell
+    private final int[][] tricks = new int[BidFeatures.CELLS][];
+    private final Map<RoundContext, int[]> dealtCells = new ConcurrentHashMap<>();
+
+    @Override
+    public void onDeal(GameContext gameContext, RoundContext roundContext) {
+        int seatAmount = gameContext.getBotAmount();
+        int[] cells = new int[seatAmount];
+
+        for (int seat = 0; seat < seatAmount; seat++) {
+            cells[seat] = BidFeatures.cellOf(gameContext.getSeat(seat).getCards().mask(), roundContext.trumpCard(),
+                    seatAmount);
+        }
+        dealtCells.put(roundContext, cells);
+    }
+
+    @Override
+    public void onRoundScored(GameContext gameContext, RoundContext roundContext) {
+        int[] cells = dealtCells.remove(roundContext);
+
+        if (cells == null) {
+            return;
+        }
+        synchronized (tricks) {
+            for (int seat = 0; seat < cells.length; seat++) {
+                if (cells[seat] < 0) {
+                    continue;
+                }
+                if (tricks[cells[seat]] == null) {
+                    tricks[cells[seat]] = new int[roundContext.number() + 1];
+                }
+                tricks[cells[seat]][roundContext.getTrickWins(seat)]++;
+            }
+        }
+    }
+
+    /**
+     * @return rounds of the cell by tricks won, empty if no hand fell into it
+     */
+    public int[] tricksOf(int cell) {
+        synchronized (tricks) {
+            return tricks[cell] == null ? new int[0] : tricks[cell].clone();
+        }
+    }
+}
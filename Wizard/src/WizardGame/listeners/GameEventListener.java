@@ -0,0 +1,81 @@
+package WizardGame.listeners;
+
+import WizardGame.contexts.GameContext;
+import WizardGame.contexts.RoundContext;
+import WizardGame.models.Card;
+import WizardGame.models.GameBot;
+import WizardGame.models.GameResult;
+
+/**
+ * Callbacks fired by GameHandler while a game is played, so statistics can be collected on the fly
+ * instead of rescanning the round history afterwards. All methods do nothing by default.
+ * <p>
+ * A listener is called from the thread playing the game; one instance shared by parallel games must be thread-safe.
+ */
+public interface GameEventListener {
+    GameEventListener NONE = new GameEventListener() {};
+
+    /**
+     * Hands are dealt and the trump is drawn, no bids yet.
+     */
+    default void onDeal(GameContext gameContext, RoundContext roundContext) {}
+
+    default void onBid(RoundContext roundContext, GameBot gameBot, int trickBid) {}
+
+    default void onCardPlayed(RoundContext roundContext, GameBot gameBot, Card card) {}
+
+    default void onTrickWon(RoundContext roundContext, GameBot winnerBot) {}
+
+    /**
+     * Scores of the round are already added to the game context.
+     */
+    default void onRoundScored(GameContext gameContext, RoundContext roundContext) {}
+
+    default void onGameEnd(GameResult gameResult) {}
+
+    /**
+     * @return a listener passing every event to {@code first}, then to {@code second}
+     */
+    static GameEventListener of(GameEventListener first, GameEventListener second) {
+        if (first == NONE || second == NONE) {
+            return first == NONE ? second : first;
+        }
+        return new GameEventListener() {
+            @Override
+            public void onDeal(GameContext gameContext, RoundContext roundContext) {
+                first.onDeal(gameContext, roundContext);
+                second.onDeal(gameContext, roundContext);
+            }
+
+            @Override
+            public void onBid(RoundContext roundContext, GameBot gameBot, int trickBid) {
+                first.onBid(roundContext, gameBot, trickBid);
+                second.onBid(roundContext, gameBot, trickBid);
+            }
+
+            @Override
+            public void onCardPlayed(RoundContext roundContext, GameBot gameBot, Card card) {
+                first.onCardPlayed(roundContext, gameBot, card);
+                second.onCardPlayed(roundContext, gameBot, card);
+            }
+
+            @Override
+            public void onTrickWon(RoundContext roundContext, GameBot winnerBot) {
+                first.onTrickWon(roundContext, winnerBot);
+                second.onTrickWon(roundContext, winnerBot);
+            }
+
+            @Override
+            public void onRoundScored(GameContext gameContext, RoundContext roundContext) {
+                first.onRoundScored(gameContext, roundContext);
+                second.onRoundScored(gameContext, roundContext);
+            }
+
+            @Override
+            public void onGameEnd(GameResult gameResult) {
+                first.onGameEnd(gameResult);
+                second.onGameEnd(gameResult);
+            }
+        };
+    }
+}
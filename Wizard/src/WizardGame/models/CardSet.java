@@ -0,0 +1,229 @@
+package WizardGame.models;
+
+import WizardGame.handlers.CardRegistry;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of cards backed by a single 64-bit mask, bit {@code i} standing for the card with ordinal {@code i}.
+ * Membership, union, difference and size are single long operations; the class still implements
+ * {@link java.util.Set} so it can be handed to strategies that only know about {@code Set<Card>}.
+ */
+public class CardSet extends AbstractSet<Card> {
+    public static final long EMPTY_MASK = 0L;
+    public static final long FULL_DECK_MASK = (1L << CardRegistry.DECK_SIZE) - 1;
+
+    private long mask;
+    private final boolean mutable;
+
+    public CardSet() {
+        this(EMPTY_MASK, true);
+    }
+
+    public CardSet(Collection<? extends Card> cards) {
+        this(maskOf(cards), true);
+    }
+
+    private CardSet(long mask, boolean mutable) {
+        this.mask = mask & FULL_DECK_MASK;
+        this.mutable = mutable;
+    }
+
+    public static CardSet of(long mask) {
+        return new CardSet(mask, true);
+    }
+
+    public static CardSet immutableOf(long mask) {
+        return new CardSet(mask, false);
+    }
+
+    public static long bit(Card card) {
+        return 1L << card.getOrdinal();
+    }
+
+    public static long maskOf(Collection<?> cards) {
+        if (cards instanceof CardSet cardSet) {
+            return cardSet.mask;
+        }
+
+        long mask = EMPTY_MASK;
+
+        for (Object o : cards) {
+            if (o instanceof Card card) {
+                mask |= bit(card);
+            }
+        }
+        return mask;
+    }
+
+    public long mask() {
+        return mask;
+    }
+
+    public void setMask(long mask) {
+        checkMutable();
+        this.mask = mask & FULL_DECK_MASK;
+    }
+
+    public boolean isMutable() {
+        return mutable;
+    }
+
+    public CardSet copy() {
+        return new CardSet(mask, true);
+    }
+
+    public CardSet toImmutable() {
+        return mutable ? new CardSet(mask, false) : this;
+    }
+
+    public CardSet union(CardSet other) {
+        return new CardSet(mask | other.mask, true);
+    }
+
+    public CardSet difference(CardSet other) {
+        return new CardSet(mask & ~other.mask, true);
+    }
+
+    public CardSet intersection(CardSet other) {
+        return new CardSet(mask & other.mask, true);
+    }
+
+    @Override
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mask == EMPTY_MASK;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Card card && (mask & bit(card)) != 0;
+    }
+
+    @Override
+    public boolean add(Card card) {
+        checkMutable();
+        long before = mask;
+        mask |= bit(card);
+        return mask != before;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        checkMutable();
+        if (!(o instanceof Card card)) {
+            return false;
+        }
+        long before = mask;
+        mask &= ~bit(card);
+        return mask != before;
+    }
+
+    @Override
+    public void clear() {
+        checkMutable();
+        mask = EMPTY_MASK;
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof CardSet other) {
+            return (other.mask & ~mask) == 0;
+        }
+        return super.containsAll(c);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Card> c) {
+        checkMutable();
+        long before = mask;
+        mask |= maskOf(c);
+        return mask != before;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        checkMutable();
+        long before = mask;
+        mask &= ~maskOf(c);
+        return mask != before;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        checkMutable();
+        long before = mask;
+        mask &= maskOf(c);
+        return mask != before;
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private long remaining = mask;
+            private long expectedMask = mask;
+            private int lastOrdinal = -1;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public Card next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                if (mask != expectedMask) {
+                    throw new ConcurrentModificationException();
+                }
+                lastOrdinal = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return CardRegistry.getCard(lastOrdinal);
+            }
+
+            @Override
+            public void remove() {
+                if (lastOrdinal < 0) {
+                    throw new IllegalStateException();
+                }
+                checkMutable();
+                mask &= ~(1L << lastOrdinal);
+                expectedMask = mask;
+                lastOrdinal = -1;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof CardSet other) {
+            return mask == other.mask;
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        int hashCode = 0;
+
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            hashCode += Long.numberOfTrailingZeros(rest);
+        }
+        return hashCode;
+    }
+
+    private void checkMutable() {
+        if (!mutable) {
+            throw new UnsupportedOperationException("CardSet is immutable");
+        }
+    }
+}
@@ -1,58 +1,145 @@
-package WizardGame.models;
-
-import WizardGame.enums.CardType;
-import WizardGame.DTOs.*;
-import WizardGame.contexts.RoundContext;
-import WizardGame.strategies.GameStrategy;
-
-import java.util.*;
-
-public class GameBot {
-    private final String gameBotId;
-
-private Set<Card> cards = new HashSet<>();
-private final GameStrategy gameStrategy;
-
-    public GameBot(GameStrategy gameStrategy){
-        gameBotId = UUID.randomUUID().toString();
-        this.gameStrategy = gameStrategy;
-    }
-
-
-    public Card beatCard(TrickContextDTO trickContextDTO, RoundContext roundContext,
-                         Set<CardType> allowedResponses, GameContextDTO gameContextDTO){
-
-        BeatCardContextDTO dto = new BeatCardContextDTO(gameBotId, trickContextDTO, roundContext, allowedResponses,
-                cards, gameContextDTO);
-
-     Card card = gameStrategy.beatCard(dto);
-
-        cards.remove(card);
-     return card;
-    }
-
-    public Card dropCard(RoundContext roundContext, GameContextDTO gameContextDTO){
-    Card card = gameStrategy.dropCard(new DropCardContextDTO(gameBotId, roundContext, cards, gameContextDTO));
-cards.remove(card);
-        return card;
-    }
-
-    public Integer createTrickBids(CreateTrickBidsContextDTO createTrickBidsContextDTO){
-
-        return gameStrategy.createTrickBids(createTrickBidsContextDTO);
-    }
-
-    public void setCards(Set<Card> cards){
-        this.cards = cards;
-    }
-
-public Set<Card> getCards(){
-        return cards;
-}
-    public String getGameBotId(){
-        return gameBotId;
-    }
-    public String getStrategyName(){
-        return gameStrategy.getStrategyName();
-    }
-}
+package WizardGame.models;
+
+import WizardGame.enums.CardType;
+import WizardGame.DTOs.*;
+import WizardGame.contexts.RoundContext;
+import WizardGame.exceptions.IllegalMoveException;
+import WizardGame.strategies.GameStrategy;
+import WizardGame.strategies.RoundHistoryReader;
+import WizardGame.strategies.SeededStrategy;
+
+import java.util.*;
+
+public class GameBot {
+    private final String gameBotId;
+    private int seat = -1;
+
+private final CardSet cards = new CardSet();
+// cards of the current round this seat has not seen: neither dealt to it, nor the trump, nor played
+private final CardSet unseenCards = new CardSet();
+private GameStrategy gameStrategy;
+
+    // decision views are reused for every call, see the DTO snapshot() methods
+    private final DropCardContextDTO dropCardContext;
+    private final BeatCardContextDTO beatCardContext;
+    private final CreateTrickBidsContextDTO createTrickBidsContext;
+
+    public GameBot(GameStrategy gameStrategy){
+        this(gameStrategy, UUID.randomUUID().toString());
+    }
+
+    public GameBot(GameStrategy gameStrategy, String gameBotId){
+        this.gameBotId = gameBotId;
+        this.gameStrategy = gameStrategy;
+
+        dropCardContext = new DropCardContextDTO(gameBotId, null, cards, null, unseenCards);
+        beatCardContext = new BeatCardContextDTO(gameBotId, null, null, null, cards, null, 0L, new CardSet(),
+                unseenCards);
+        createTrickBidsContext = new CreateTrickBidsContextDTO(null, null, null, cards, null, gameBotId, unseenCards);
+    }
+
+
+    public Card beatCard(TrickContextDTO trickContextDTO, RoundContext roundContext,
+                         Set<CardType> allowedResponses, long allowedMask, GameContextDTO gameContextDTO){
+
+        BeatCardContextDTO dto = beatCardContext.update(trickContextDTO, roundContext, allowedResponses, gameContextDTO,
+                allowedMask);
+
+     Card card = gameStrategy.beatCard(dto);
+        checkMove(card, allowedMask);
+
+        cards.remove(card);
+     return card;
+    }
+
+    public Card dropCard(RoundContext roundContext, GameContextDTO gameContextDTO){
+    Card card = gameStrategy.dropCard(dropCardContext.update(roundContext, gameContextDTO));
+        checkMove(card, cards.mask());
+
+cards.remove(card);
+        return card;
+    }
+
+    private void checkMove(Card card, long allowedMask){
+        if(card == null || (allowedMask & CardSet.bit(card)) == 0){
+            throw new IllegalMoveException(getStrategyName(), card);
+        }
+    }
+
+    public Integer createTrickBids(CreateTrickBidsContextDTO createTrickBidsContextDTO){
+
+        return gameStrategy.createTrickBids(createTrickBidsContextDTO);
+    }
+
+    public Integer createTrickBids(GameContextDTO gameContextDTO, Map<String, TrickBidDTO> trickBids, Card trumpCard,
+                                   String dealerId){
+
+        return gameStrategy.createTrickBids(createTrickBidsContext.update(gameContextDTO, trickBids, trumpCard, dealerId));
+    }
+
+    public void setCards(Set<Card> cards){
+        this.cards.setMask(CardSet.maskOf(cards));
+    }
+
+public CardSet getCards(){
+        return cards;
+}
+
+    /**
+     * Called by the engine after a deal; everything outside the new hand is unseen.
+     */
+    public void resetUnseenCards(){
+        unseenCards.setMask(CardSet.FULL_DECK_MASK & ~cards.mask());
+    }
+
+    /**
+     * Called by the engine when a card is revealed to the table, i.e. the trump or a played card.
+     */
+    public void markSeen(Card card){
+        unseenCards.remove(card);
+    }
+
+    /**
+     * @return live set updated by the engine; do not modify, copy it to keep it
+     */
+    public CardSet getUnseenCards(){
+        return unseenCards;
+    }
+    public String getGameBotId(){
+        return gameBotId;
+    }
+
+    /**
+     * @return dense index of the bot in its current game, assigned by GameContext
+     */
+    public int getSeat(){
+        return seat;
+    }
+
+    public void setSeat(int seat){
+        this.seat = seat;
+    }
+    public void setSeed(long seed){
+        if(gameStrategy instanceof SeededStrategy seededStrategy){
+            seededStrategy.setSeed(seed);
+        }
+    }
+
+    /**
+     * @return finished rounds the strategy reads from the round history, 0 if it does not read it
+     */
+    public int getFinishedRoundsRead(){
+        return gameStrategy instanceof RoundHistoryReader reader ? reader.finishedRoundsRead() : 0;
+    }
+
+    /**
+     * Seats a new strategy instance, so the bot and its seat can be reused for another game.
+     */
+    public void setGameStrategy(GameStrategy gameStrategy){
+        this.gameStrategy = gameStrategy;
+    }
+
+    public String getStrategyName(){
+        return gameStrategy.getStrategyName();
+    }
+}
@@ -1,6 +1,6 @@
-package WizardGame.models;
-
-import WizardGame.contexts.GameContext;
-
-public record GameResult(GameBot winnerBot, GameContext gameContext, int drawAmount) {
-}
+package WizardGame.models;
+
+import WizardGame.contexts.GameContext;
+
+public record GameResult(GameBot winnerBot, GameContext gameContext, int drawAmount) {
+}
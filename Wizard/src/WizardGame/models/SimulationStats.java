@@ -0,0 +1,101 @@
+package WizardGame.models;
+
+import WizardGame.contexts.GameContext;
+import WizardGame.contexts.RoundContext;
+import WizardGame.listeners.GameEventListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Seat-indexed counters of a batch of games, collected from game events. Games played on different threads
+ * record into the same instance without locking.
+ */
+public class SimulationStats implements GameEventListener {
+    private final String[] strategyNames;
+
+    private final LongAdder games = new LongAdder();
+    private final LongAdder draws = new LongAdder();
+    private final LongAdder[] wins;
+
+    // per seat and round: bid compared to the tricks actually won
+    private final LongAdder[] exactBids;
+    private final LongAdder[] tooMuchWins;
+    private final LongAdder[] notEnoughWins;
+
+    public SimulationStats(String[] strategyNames){
+        this.strategyNames = strategyNames;
+
+        wins = newAdders(strategyNames.length);
+        exactBids = newAdders(strategyNames.length);
+        tooMuchWins = newAdders(strategyNames.length);
+        notEnoughWins = newAdders(strategyNames.length);
+    }
+
+    @Override
+    public void onRoundScored(GameContext gameContext, RoundContext roundContext){
+        for(int seat = 0; seat < strategyNames.length; seat++){
+            int bid = roundContext.getTrickBid(seat);
+            int trickWins = roundContext.getTrickWins(seat);
+
+            if(bid < trickWins){
+                tooMuchWins[seat].increment();
+            }else if(bid > trickWins){
+                notEnoughWins[seat].increment();
+            }else{
+                exactBids[seat].increment();
+            }
+        }
+    }
+
+    @Override
+    public void onGameEnd(GameResult gameResult){
+        games.increment();
+
+        if(gameResult.winnerBot() != null){
+            wins[gameResult.winnerBot().getSeat()].increment();
+        }else{
+            draws.add(gameResult.drawAmount());
+        }
+    }
+
+    public int getSeatAmount(){
+        return strategyNames.length;
+    }
+
+    public String getStrategyName(int seat){
+        return strategyNames[seat];
+    }
+
+    public long getGames(){
+        return games.sum();
+    }
+
+    public long getDraws(){
+        return draws.sum();
+    }
+
+    public long getWins(int seat){
+        return wins[seat].sum();
+    }
+
+    public long getExactBids(int seat){
+        return exactBids[seat].sum();
+    }
+
+    public long getTooMuchWins(int seat){
+        return tooMuchWins[seat].sum();
+    }
+
+    public long getNotEnoughWins(int seat){
+        return notEnoughWins[seat].sum();
+    }
+
+    private static LongAdder[] newAdders(int amount){
+        LongAdder[] adders = new LongAdder[amount];
+
+        for(int i = 0; i < amount; i++){
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,141 @@
+package WizardGame.models;
+
+import WizardGame.enums.CardType;
+import WizardGame.handlers.CardRegistry;
+
+import java.util.Arrays;
+
+/**
+ * Relabeling of the four colored suits; wizards and jesters are left alone. All 24 permutations and their
+ * inverses are created once, so applying, inverting or looking one up never allocates.
+ */
+public final class SuitPermutation {
+    private static final int SUITS = CardRegistry.SUITS_COUNT;
+    private static final long SUIT_BITS = (1L << CardRegistry.SUIT_SIZE) - 1;
+    private static final long SPECIAL_MASK = CardSet.FULL_DECK_MASK & ~((1L << CardRegistry.WIZARD_OFFSET) - 1);
+
+    // indexed by code(), 2 bits per suit
+    private static final SuitPermutation[] BY_CODE = new SuitPermutation[1 << 2 * SUITS];
+    private static final SuitPermutation IDENTITY;
+
+    static {
+        int[] targets = new int[SUITS];
+
+        for (int code = 0; code < BY_CODE.length; code++) {
+            int used = 0;
+
+            for (int suit = 0; suit < SUITS; suit++) {
+                targets[suit] = code >>> 2 * suit & 3;
+                used |= 1 << targets[suit];
+            }
+            if (used == (1 << SUITS) - 1) {
+                BY_CODE[code] = new SuitPermutation(targets.clone(), code);
+            }
+        }
+        IDENTITY = of(0, 1, 2, 3);
+
+        for (SuitPermutation permutation : BY_CODE) {
+            if (permutation != null) {
+                int inverseCode = 0;
+
+                for (int suit = 0; suit < SUITS; suit++) {
+                    inverseCode |= suit << 2 * permutation.targets[suit];
+                }
+                permutation.inverse = BY_CODE[inverseCode];
+            }
+        }
+    }
+
+    private final int[] targets;
+    private final int code;
+    // set once in the static initializer
+    private SuitPermutation inverse;
+
+    private SuitPermutation(int[] targets, int code) {
+        this.targets = targets;
+        this.code = code;
+    }
+
+    public static SuitPermutation identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * @param targets target suit of each suit, by {@link CardType} ordinal
+     */
+    public static SuitPermutation of(int... targets) {
+        if (targets.length != SUITS) {
+            throw new IllegalArgumentException("Expected " + SUITS + " suits: " + Arrays.toString(targets));
+        }
+
+        int code = 0;
+
+        for (int suit = 0; suit < SUITS; suit++) {
+            if (targets[suit] < 0 || targets[suit] >= SUITS) {
+                throw new IllegalArgumentException("Not a permutation of the suits: " + Arrays.toString(targets));
+            }
+            code |= targets[suit] << 2 * suit;
+        }
+
+        SuitPermutation permutation = BY_CODE[code];
+
+        if (permutation == null) {
+            throw new IllegalArgumentException("Not a permutation of the suits: " + Arrays.toString(targets));
+        }
+        return permutation;
+    }
+
+    public long apply(long mask) {
+        long result = mask & SPECIAL_MASK;
+
+        for (int suit = 0; suit < SUITS; suit++) {
+            result |= (mask >>> suit * CardRegistry.SUIT_SIZE & SUIT_BITS) << targets[suit] * CardRegistry.SUIT_SIZE;
+        }
+        return result;
+    }
+
+    public int apply(int ordinal) {
+        if (ordinal >= CardRegistry.WIZARD_OFFSET) {
+            return ordinal;
+        }
+        int suit = ordinal / CardRegistry.SUIT_SIZE;
+        return targets[suit] * CardRegistry.SUIT_SIZE + ordinal % CardRegistry.SUIT_SIZE;
+    }
+
+    public Card apply(Card card) {
+        return card == null ? null : CardRegistry.getCard(apply(card.getOrdinal()));
+    }
+
+    public CardType apply(CardType cardType) {
+        if (cardType == null || !CardRegistry.isSuit(cardType)) {
+            return cardType;
+        }
+        return CardType.values()[targets[cardType.ordinal()]];
+    }
+
+    public SuitPermutation inverse() {
+        return inverse;
+    }
+
+    public boolean isIdentity() {
+        return this == IDENTITY;
+    }
+
+    /**
+     * @return 8-bit code of the permutation, 2 bits per suit; equal permutations have equal codes
+     */
+    public int code() {
+        return code;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SuitPermutation[");
+
+        for (int suit = 0; suit < SUITS; suit++) {
+            builder.append(suit == 0 ? "" : ", ").append(CardType.values()[suit]).append("->")
+                    .append(CardType.values()[targets[suit]]);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,429 @@
+package WizardGame.strategies;
+
+import WizardGame.DTOs.BeatCardContextDTO;
+import WizardGame.DTOs.CreateTrickBidsContextDTO;
+import WizardGame.DTOs.DropCardContextDTO;
+import WizardGame.contexts.RoundContext;
+import WizardGame.handlers.CardRegistry;
+import WizardGame.handlers.DealSampler;
+import WizardGame.handlers.GameManager;
+import WizardGame.handlers.SeedSequence;
+import WizardGame.handlers.TrickRules;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+import java.util.SplittableRandom;
+
+/**
+ * Information-set Monte Carlo tree search over the plays of the rest of the round. Every iteration deals the
+ * unseen cards at random, in line with what this seat has seen, and walks one tree shared by all deals: a node is
+ * a card played, children are tried by UCB among the cards legal in the deal, a random playout finishes the round
+ * and every seat is rewarded with its {@link GameManager#roundScore(int, int)}.
+ * <p>
+ * Nodes live in an arena of primitive arrays, so iterations do not allocate. The tree of a decision is kept for
+ * the next one in the same round: the cards played in between lead to the new root. Bids are left to the fallback.
+ */
+public class IsmctsStrategy implements GameStrategy, SeededStrategy, RoundHistoryReader {
+    public static final int DEFAULT_ITERATIONS = 2000;
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final double EXPLORATION = 0.7;
+    private static final int NONE = -1;
+
+    private final GameStrategy fallback;
+    private final int iterations;
+    private final int capacity;
+
+    // node i: cards[i] played by movers[i]; children of a node are a list through nextSiblings
+    private final byte[] cards;
+    private final byte[] movers;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] visits;
+    // how often the node's card was legal when its parent was passed
+    private final int[] availabilities;
+    private final double[] rewards;
+    private int nodeAmount;
+
+    private int root = NONE;
+    private int playedChild = NONE;
+    private int treeRound = -1;
+    // cards played in the round when the tree was last searched
+    private long seenAtRoot;
+
+    private final VoidTracker voidTracker = new VoidTracker();
+    private final DealSampler dealSampler = new DealSampler();
+    private SplittableRandom random = new SplittableRandom();
+
+    // the decision: own seat, every seat's bid and wins, the current trick and the cards to deal
+    private int seatAmount;
+    private int ownSeat;
+    private long ownHand;
+    private long unseen;
+    private int[] bids = new int[0];
+    private int[] wins = new int[0];
+    private int[] handSizes = new int[0];
+    private int[] trick = new int[0];
+    private int trickLeader;
+    private int trumpIndex;
+    private int minScore;
+    private int maxScore;
+
+    // one deal being played out
+    private long[] hands = new long[0];
+    private int[] simulatedWins = new int[0];
+    private double[] simulatedRewards = new double[0];
+    private int toMove;
+    private int playedToTrick;
+    private int ledCard;
+    private int winningCard;
+    private int winnerSeat;
+    private final int[] path = new int[CardRegistry.DECK_SIZE + 1];
+
+    public IsmctsStrategy() {
+        this(new MetaCrusherV1(), DEFAULT_ITERATIONS, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity nodes of the arena; once it is full, iterations only play out
+     */
+    public IsmctsStrategy(GameStrategy fallback, int iterations, int capacity) {
+        if (iterations < 1 || capacity < 2) {
+            throw new IllegalArgumentException("Iterations must be positive and the capacity at least 2");
+        }
+        this.fallback = fallback;
+        this.iterations = iterations;
+        this.capacity = capacity;
+
+        cards = new byte[capacity];
+        movers = new byte[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        visits = new int[capacity];
+        availabilities = new int[capacity];
+        rewards = new double[capacity];
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        random = new SplittableRandom(seed);
+        root = NONE;
+
+        if (fallback instanceof SeededStrategy seededStrategy) {
+            seededStrategy.setSeed(SeedSequence.split(seed, 0));
+        }
+    }
+
+    @Override
+    public int finishedRoundsRead() {
+        return fallback instanceof RoundHistoryReader reader ? reader.finishedRoundsRead() : 0;
+    }
+
+    @Override
+    public Integer createTrickBids(CreateTrickBidsContextDTO createTrickBidsContextDTO) {
+        return fallback.createTrickBids(createTrickBidsContextDTO);
+    }
+
+    @Override
+    public Card dropCard(DropCardContextDTO dropCardContextDTO) {
+        long hand = CardSet.maskOf(dropCardContextDTO.ownCards());
+        RoundContext roundContext = dropCardContextDTO.roundContext();
+
+        Card card = chooseCard(hand, hand, new int[0], roundContext, roundContext.seatOf(dropCardContextDTO.ownId()),
+                dropCardContextDTO.gameContextDTO().botAmount(), CardSet.maskOf(dropCardContextDTO.unseenCards()));
+
+        return card != null ? card : fallback.dropCard(dropCardContextDTO);
+    }
+
+    @Override
+    public Card beatCard(BeatCardContextDTO beatCardContextDTO) {
+        RoundContext roundContext = beatCardContextDTO.roundContext();
+        int seatAmount = beatCardContextDTO.gameContextDTO().botAmount();
+        int ownSeat = roundContext.seatOf(beatCardContextDTO.ownId());
+        int[] trick = beatCardContextDTO.trickContextDTO().ordinals();
+
+        voidTracker.observeTrick(roundContext, trick, (ownSeat - trick.length + seatAmount) % seatAmount, seatAmount);
+
+        Card card = chooseCard(CardSet.maskOf(beatCardContextDTO.ownCards()), beatCardContextDTO.allowedMask(), trick,
+                roundContext, ownSeat, seatAmount, CardSet.maskOf(beatCardContextDTO.unseenCards()));
+
+        return card != null ? card : fallback.beatCard(beatCardContextDTO);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "ISMCTS";
+    }
+
+    /**
+     * @return the most visited card of the root, or null to leave the decision to the fallback
+     */
+    private Card chooseCard(long hand, long legal, int[] trick, RoundContext roundContext, int ownSeat, int seatAmount,
+                            long unseen) {
+        if (ownSeat < 0 || !roundContext.hasTrickBid(ownSeat)) {
+            return null;
+        }
+        load(hand, trick, roundContext, ownSeat, seatAmount, unseen);
+        long seen = CardSet.maskOf(roundContext.usedCards()) | trickMask(trick);
+
+        if (Long.bitCount(legal) == 1) {
+            root = NONE;
+            return CardRegistry.getCard(Long.numberOfTrailingZeros(legal));
+        }
+
+        reuseTree(roundContext.number(), seen, trick);
+        long[] excluded = voidTracker.excluded(roundContext, seatAmount);
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            dealSampler.sample(unseen, handSizes, excluded, random, hands);
+            iterate();
+        }
+
+        int bestChild = NONE;
+        for (int child = firstChildren[root]; child != NONE; child = nextSiblings[child]) {
+            if ((legal & 1L << cards[child]) != 0 && (bestChild == NONE || visits[child] > visits[bestChild])) {
+                bestChild = child;
+            }
+        }
+        playedChild = bestChild;
+        seenAtRoot = seen;
+        treeRound = roundContext.number();
+
+        return bestChild == NONE ? null : CardRegistry.getCard(cards[bestChild]);
+    }
+
+    private void load(long hand, int[] trick, RoundContext roundContext, int ownSeat, int seatAmount, long unseen) {
+        if (this.seatAmount != seatAmount) {
+            this.seatAmount = seatAmount;
+            bids = new int[seatAmount];
+            wins = new int[seatAmount];
+            handSizes = new int[seatAmount];
+            hands = new long[seatAmount];
+            simulatedWins = new int[seatAmount];
+            simulatedRewards = new double[seatAmount];
+        }
+        this.ownSeat = ownSeat;
+        this.ownHand = hand;
+        this.unseen = unseen;
+        this.trick = trick;
+
+        trickLeader = (ownSeat - trick.length + seatAmount) % seatAmount;
+        Card trumpCard = roundContext.trumpCard();
+        trumpIndex = TrickRules.trumpIndex(trumpCard == null ? null : trumpCard.getType());
+
+        for (int seat = 0; seat < seatAmount; seat++) {
+            bids[seat] = roundContext.getTrickBid(seat);
+            wins[seat] = roundContext.getTrickWins(seat);
+
+            // seats that already played to this trick hold one card less
+            handSizes[seat] = seat == ownSeat ? 0
+                    : Long.bitCount(hand) - ((seat - trickLeader + seatAmount) % seatAmount < trick.length ? 1 : 0);
+        }
+
+        // every round has as many tricks as cards per hand
+        minScore = -10 * roundContext.number();
+        maxScore = GameManager.roundScore(roundContext.number(), roundContext.number());
+    }
+
+    /**
+     * Moves the root along the cards played since the last decision: the rest of the trick this seat played to,
+     * then the current trick. Starts a new tree if the path is not in the tree or the arena could fill up during
+     * the search.
+     */
+    private void reuseTree(int roundNumber, long seen, int[] trick) {
+        int newRoot = NONE;
+
+        if (root != NONE && playedChild != NONE && treeRound == roundNumber
+                && nodeAmount + iterations <= capacity) {
+            long played = seen & ~seenAtRoot & ~(1L << cards[playedChild]);
+            newRoot = descend(playedChild, played & ~trickMask(trick));
+        }
+        if (newRoot != NONE) {
+            root = newRoot;
+        } else {
+            nodeAmount = 0;
+            root = addNode(NONE, 0, 0);
+        }
+        playedChild = NONE;
+    }
+
+    /**
+     * The strategy calls only show which cards the seats after this one played, not who played which, so every
+     * order of {@code cardsLeft} is tried. Paths must go on with the current trick played by the right seats and
+     * end where this seat plays next; of several such nodes the most visited one is taken.
+     */
+    private int descend(int node, long cardsLeft) {
+        if (cardsLeft == 0) {
+            for (int i = 0; i < trick.length && node != NONE; i++) {
+                node = child(node, trick[i]);
+
+                if (node != NONE && movers[node] != (trickLeader + i) % seatAmount) {
+                    node = NONE;
+                }
+            }
+            // all children of a node are plays of the same seat
+            return node != NONE && (firstChildren[node] == NONE || movers[firstChildren[node]] == ownSeat)
+                    ? node : NONE;
+        }
+        int best = NONE;
+
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if ((cardsLeft & 1L << cards[child]) == 0) {
+                continue;
+            }
+            int end = descend(child, cardsLeft & ~(1L << cards[child]));
+
+            if (end != NONE && (best == NONE || visits[end] > visits[best])) {
+                best = end;
+            }
+        }
+        return best;
+    }
+
+    private int child(int node, int card) {
+        for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+            if (cards[child] == card) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int addNode(int parent, int card, int mover) {
+        int node = nodeAmount++;
+
+        cards[node] = (byte) card;
+        movers[node] = (byte) mover;
+        firstChildren[node] = NONE;
+        visits[node] = 0;
+        availabilities[node] = 1;
+        rewards[node] = 0;
+
+        if (parent != NONE) {
+            nextSiblings[node] = firstChildren[parent];
+            firstChildren[parent] = node;
+        } else {
+            nextSiblings[node] = NONE;
+        }
+        return node;
+    }
+
+    // one iteration on the deal in hands: selection, expansion of one node, playout and backpropagation
+    private void iterate() {
+        startDeal();
+
+        int node = root;
+        int depth = 0;
+        path[depth++] = root;
+
+        while (!roundOver()) {
+            long legal = legalMoves();
+            long untried = legal;
+            int bestChild = NONE;
+            double bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+                if ((legal & 1L << cards[child]) == 0) {
+                    continue;
+                }
+                untried &= ~(1L << cards[child]);
+                availabilities[child]++;
+
+                double value = rewards[child] / visits[child]
+                        + EXPLORATION * Math.sqrt(Math.log(availabilities[child]) / visits[child]);
+
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestChild = child;
+                }
+            }
+
+            if (untried != 0 && nodeAmount < capacity) {
+                int card = randomCard(untried);
+                path[depth++] = addNode(node, card, toMove);
+                play(card);
+                break;
+            }
+            if (bestChild == NONE) {
+                break;
+            }
+            node = bestChild;
+            path[depth++] = node;
+            play(cards[node]);
+        }
+
+        while (!roundOver()) {
+            play(randomCard(legalMoves()));
+        }
+
+        for (int i = 0; i < seatAmount; i++) {
+            simulatedRewards[i] = (double) (GameManager.roundScore(bids[i], simulatedWins[i]) - minScore)
+                    / (maxScore - minScore);
+        }
+        visits[root]++;
+
+        for (int i = 1; i < depth; i++) {
+            visits[path[i]]++;
+            rewards[path[i]] += simulatedRewards[movers[path[i]]];
+        }
+    }
+
+    private void startDeal() {
+        hands[ownSeat] = ownHand;
+        System.arraycopy(wins, 0, simulatedWins, 0, seatAmount);
+
+        toMove = trickLeader;
+        playedToTrick = 0;
+
+        for (int card : trick) {
+            hands[toMove] |= 1L << card;
+            play(card);
+        }
+    }
+
+    private boolean roundOver() {
+        return playedToTrick == 0 && hands[toMove] == 0;
+    }
+
+    private long legalMoves() {
+        return playedToTrick == 0 ? hands[toMove]
+                : TrickRules.legalResponseMask(hands[toMove], CardRegistry.getCard(ledCard));
+    }
+
+    private void play(int card) {
+        hands[toMove] &= ~(1L << card);
+
+        if (playedToTrick == 0) {
+            ledCard = card;
+            winningCard = card;
+            winnerSeat = toMove;
+        } else if ((TrickRules.beatersOf(winningCard, trumpIndex) & 1L << card) != 0) {
+            winningCard = card;
+            winnerSeat = toMove;
+        }
+
+        if (++playedToTrick == seatAmount) {
+            simulatedWins[winnerSeat]++;
+            playedToTrick = 0;
+            toMove = winnerSeat;
+        } else {
+            toMove = (toMove + 1) % seatAmount;
+        }
+    }
+
+    private int randomCard(long cardMask) {
+        for (int skip = random.nextInt(Long.bitCount(cardMask)); skip > 0; skip--) {
+            cardMask &= cardMask - 1;
+        }
+        return Long.numberOfTrailingZeros(cardMask);
+    }
+
+    private static long trickMask(int[] trick) {
+        long mask = 0L;
+
+        for (int card : trick) {
+            mask |= 1L << card;
+        }
+        return mask;
+    }
+}
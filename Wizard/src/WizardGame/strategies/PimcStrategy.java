@@ -0,0 +1,395 @@
+package WizardGame.strategies;
+
+import WizardGame.DTOs.BeatCardContextDTO;
+import WizardGame.DTOs.CreateTrickBidsContextDTO;
+import WizardGame.DTOs.DropCardContextDTO;
+import WizardGame.contexts.RoundContext;
+import WizardGame.enums.CardType;
+import WizardGame.handlers.CardRegistry;
+import WizardGame.handlers.DealSampler;
+import WizardGame.handlers.DoubleDummySolver;
+import WizardGame.handlers.EndgameTablebase;
+import WizardGame.handlers.GameManager;
+import WizardGame.handlers.SeedSequence;
+import WizardGame.handlers.TrickRules;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Perfect-information Monte Carlo: deals the unseen cards to the other hands at random, in line with the played
+ * cards, the trump and the suits other seats were seen not to follow, and solves every deal with the
+ * {@link DoubleDummySolver} for every legal card. The card with the best mean score for the own bid is played.
+ * <p>
+ * A decision stops after {@code maxSamples} deals or, if a time budget is given, when it is spent, whichever comes
+ * first. Without a budget, the default, only the sample count limits and decisions are reproducible for a seed.
+ * Deals are solved on the caller's thread; with an executor and a parallelism above 1 helpers on the executor
+ * solve deals too, and the caller only waits for helpers that started. Endgames an {@link EndgameTablebase} covers
+ * are read from it instead of being solved.
+ * <p>
+ * Exact solves get expensive fast, so bids and hands with more than {@code maxSolvedCards} cards, at most
+ * {@link #MAX_SOLVED_CARDS}, are left to the fallback strategy. With the defaults every bid is MetaCrusherV1's and
+ * PIMC only plays hands of up to 6 cards: whole rounds of up to 6 cards and the last 6 tricks of longer ones.
+ * <p>
+ * Deals are scored optimistically: a bid the seat can both reach and stay under counts as made, see
+ * {@code Decision.score}. Against MetaCrusherV1, ChatGPT_V4 and AnalystV1_1 over 2000 games of 15 rounds, scoring
+ * those bids with an exact search against the bid won 710 games instead of 727 and made 12285 bids instead of
+ * 12335, at 2.3 times the solve time.
+ */
+public class PimcStrategy implements GameStrategy, SeededStrategy, RoundHistoryReader {
+    public static final int DEFAULT_SAMPLES = 24;
+    // no budget, so decisions only depend on the seed
+    public static final Duration DEFAULT_TIME_BUDGET = Duration.ZERO;
+    public static final int DEFAULT_SOLVED_CARDS = 6;
+    // at 10 cards one solve in ten takes a third of a second or more and a decision solves dozens of deals,
+    // see DoubleDummySolver
+    public static final int MAX_SOLVED_CARDS = 8;
+
+    private static final int SOLVER_TABLE_BITS = 16;
+    // solvers keep their tables between decisions, one per thread
+    private static final ThreadLocal<DoubleDummySolver> SOLVERS =
+            ThreadLocal.withInitial(() -> new DoubleDummySolver(SOLVER_TABLE_BITS));
+
+    private final GameStrategy fallback;
+    private final int maxSamples;
+    private final long timeBudgetNanos;
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int maxSolvedCards;
+    private final EndgameTablebase tablebase;
+
+    private long seed;
+    private long decisions;
+
+    private final VoidTracker voidTracker = new VoidTracker();
+
+    public PimcStrategy() {
+        this(new MetaCrusherV1(), DEFAULT_SAMPLES, DEFAULT_TIME_BUDGET, DEFAULT_SOLVED_CARDS, null);
+    }
+
+    /**
+     * Solves every deal on the caller's thread.
+     *
+     * @param timeBudget per decision, {@link Duration#ZERO} for no limit
+     * @param tablebase  endgames to look up before solving, or null
+     */
+    public PimcStrategy(GameStrategy fallback, int maxSamples, Duration timeBudget, int maxSolvedCards,
+                        EndgameTablebase tablebase) {
+        this(fallback, maxSamples, timeBudget, maxSolvedCards, tablebase, null, 1);
+    }
+
+    /**
+     * @param timeBudget  per decision, {@link Duration#ZERO} for no limit
+     * @param tablebase   endgames to look up before solving, or null
+     * @param executor    runs the {@code parallelism - 1} helpers of a decision, not shut down; null if
+     *                    {@code parallelism} is 1
+     * @param parallelism threads solving the deals of a decision, the caller's included
+     */
+    public PimcStrategy(GameStrategy fallback, int maxSamples, Duration timeBudget, int maxSolvedCards,
+                        EndgameTablebase tablebase, ExecutorService executor, int parallelism) {
+        if (maxSamples < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Samples and parallelism must be positive");
+        }
+        if (parallelism > 1 && executor == null) {
+            throw new IllegalArgumentException("Parallelism above 1 needs an executor");
+        }
+        if (maxSolvedCards < 0 || maxSolvedCards > MAX_SOLVED_CARDS) {
+            throw new IllegalArgumentException("Solved cards must be in 0.." + MAX_SOLVED_CARDS);
+        }
+        this.fallback = fallback;
+        this.maxSamples = maxSamples;
+        this.timeBudgetNanos = timeBudget.isZero() ? Long.MAX_VALUE : timeBudget.toNanos();
+        this.maxSolvedCards = maxSolvedCards;
+        this.tablebase = tablebase;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        this.seed = seed;
+        decisions = 0;
+
+        if (fallback instanceof SeededStrategy seededStrategy) {
+            seededStrategy.setSeed(SeedSequence.split(seed, 0));
+        }
+    }
+
+    @Override
+    public int finishedRoundsRead() {
+        return fallback instanceof RoundHistoryReader reader ? reader.finishedRoundsRead() : 0;
+    }
+
+    @Override
+    public Integer createTrickBids(CreateTrickBidsContextDTO createTrickBidsContextDTO) {
+        return fallback.createTrickBids(createTrickBidsContextDTO);
+    }
+
+    @Override
+    public Card dropCard(DropCardContextDTO dropCardContextDTO) {
+        long hand = CardSet.maskOf(dropCardContextDTO.ownCards());
+        RoundContext roundContext = dropCardContextDTO.roundContext();
+        int seatAmount = dropCardContextDTO.gameContextDTO().botAmount();
+
+        Card card = chooseCard(hand, hand, new int[0], roundContext, roundContext.seatOf(dropCardContextDTO.ownId()),
+                seatAmount,
+                CardSet.maskOf(dropCardContextDTO.unseenCards()));
+
+        return card != null ? card : fallback.dropCard(dropCardContextDTO);
+    }
+
+    @Override
+    public Card beatCard(BeatCardContextDTO beatCardContextDTO) {
+        RoundContext roundContext = beatCardContextDTO.roundContext();
+        int seatAmount = beatCardContextDTO.gameContextDTO().botAmount();
+        int ownSeat = roundContext.seatOf(beatCardContextDTO.ownId());
+        int[] trick = beatCardContextDTO.trickContextDTO().ordinals();
+
+        voidTracker.observeTrick(roundContext, trick, (ownSeat - trick.length + seatAmount) % seatAmount, seatAmount);
+
+        Card card = chooseCard(CardSet.maskOf(beatCardContextDTO.ownCards()), beatCardContextDTO.allowedMask(), trick,
+                roundContext, ownSeat, seatAmount, CardSet.maskOf(beatCardContextDTO.unseenCards()));
+
+        return card != null ? card : fallback.beatCard(beatCardContextDTO);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "PIMC";
+    }
+
+    /**
+     * @return the card with the best mean score, or null to leave the decision to the fallback
+     */
+    private Card chooseCard(long hand, long legal, int[] trick, RoundContext roundContext, int ownSeat, int seatAmount,
+                            long unseen) {
+        if (Long.bitCount(legal) == 1) {
+            return CardRegistry.getCard(Long.numberOfTrailingZeros(legal));
+        }
+        if (ownSeat < 0 || seatAmount > DoubleDummySolver.MAX_SEATS || Long.bitCount(hand) > maxSolvedCards
+                || !roundContext.hasTrickBid(ownSeat)) {
+            return null;
+        }
+
+        Decision decision = new Decision(roundContext, hand, legal, trick, ownSeat, seatAmount, unseen,
+                voidTracker.excluded(roundContext, seatAmount), tablebase, SeedSequence.split(seed, ++decisions));
+        double[] totals = decision.run(maxSamples, System.nanoTime() + timeBudgetNanos, executor, parallelism);
+
+        int bestCard = -1;
+        for (int i = 0; i < decision.candidates.length; i++) {
+            if (bestCard < 0 || totals[i] > totals[bestCard]) {
+                bestCard = i;
+            }
+        }
+        return CardRegistry.getCard(decision.candidates[bestCard]);
+    }
+
+    /**
+     * Known state of one decision and the sampling of its deals. Deal {@code i} is drawn from its own seed, so
+     * what a sample scores does not depend on the thread that solves it.
+     */
+    private static final class Decision {
+        private final int[] candidates;
+        private final long hand;
+        private final int[] trick;
+        private final int leader;
+        private final int ownSeat;
+        private final int seatAmount;
+        private final long unseen;
+        private final long[] excluded;
+        private final EndgameTablebase tablebase;
+        // the own seat leads a trick the table covers, so every deal votes for the lead the table stores
+        private final boolean leadsFromTable;
+        private final int[] handSizes;
+        private final CardType trumpCardType;
+        private final int trumpIndex;
+        private final int bid;
+        private final int won;
+        private final long seed;
+
+        private final AtomicInteger nextSample = new AtomicInteger();
+
+        Decision(RoundContext roundContext, long hand, long legal, int[] trick, int ownSeat, int seatAmount,
+                 long unseen, long[] excluded, EndgameTablebase tablebase, long seed) {
+            this.hand = hand;
+            this.trick = trick;
+            this.ownSeat = ownSeat;
+            this.seatAmount = seatAmount;
+            this.unseen = unseen;
+            this.excluded = excluded.clone();
+            this.tablebase = tablebase;
+            this.seed = seed;
+
+            candidates = new int[Long.bitCount(legal)];
+            int amount = 0;
+            for (long rest = legal; rest != 0; rest &= rest - 1) {
+                candidates[amount++] = Long.numberOfTrailingZeros(rest);
+            }
+
+            leader = (ownSeat - trick.length + seatAmount) % seatAmount;
+            handSizes = new int[seatAmount];
+
+            // seats that already played to this trick hold one card less
+            for (int seat = 0; seat < seatAmount; seat++) {
+                if (seat != ownSeat) {
+                    handSizes[seat] = Long.bitCount(hand) - ((seat - leader + seatAmount) % seatAmount < trick.length ? 1 : 0);
+                }
+            }
+
+            Card trumpCard = roundContext.trumpCard();
+            trumpCardType = trumpCard == null ? null : trumpCard.getType();
+            trumpIndex = TrickRules.trumpIndex(trumpCardType);
+            bid = roundContext.getTrickBid(ownSeat);
+            won = roundContext.getTrickWins(ownSeat);
+            leadsFromTable = tablebase != null && trick.length == 0
+                    && tablebase.covers(seatAmount, Long.bitCount(hand));
+        }
+
+        /**
+         * @return for every candidate the summed score over the solved deals, or the deals that voted for it when
+         * the lead is read from the table
+         */
+        double[] run(int maxSamples, long deadline, ExecutorService executor, int parallelism) {
+            if (parallelism == 1) {
+                return solveSamples(maxSamples, deadline);
+            }
+            double[] totals = new double[candidates.length];
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            // the caller and every helper that started; once all of them are done the phaser terminates, so a
+            // helper starting later, when no deal is left, does nothing and is not waited for
+            Phaser helpers = new Phaser(1);
+
+            for (int worker = 1; worker < parallelism; worker++) {
+                executor.execute(() -> {
+                    if (helpers.register() < 0) {
+                        return;
+                    }
+                    try {
+                        addTo(totals, solveSamples(maxSamples, deadline));
+                    } catch (Throwable throwable) {
+                        failure.compareAndSet(null, throwable);
+                    } finally {
+                        helpers.arriveAndDeregister();
+                    }
+                });
+            }
+            addTo(totals, solveSamples(maxSamples, deadline));
+            helpers.awaitAdvance(helpers.arriveAndDeregister());
+
+            if (failure.get() != null) {
+                throw new IllegalStateException("Solving a deal failed", failure.get());
+            }
+            return totals;
+        }
+
+        private static void addTo(double[] totals, double[] workerTotals) {
+            synchronized (totals) {
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += workerTotals[i];
+                }
+            }
+        }
+
+        // the first deal is always solved, so a decision never ends without one
+        private double[] solveSamples(int maxSamples, long deadline) {
+            DoubleDummySolver solver = SOLVERS.get();
+            double[] totals = new double[candidates.length];
+            DealSampler dealSampler = new DealSampler();
+            long[] hands = new long[seatAmount];
+            int[] nextTrick = new int[trick.length + 1];
+            System.arraycopy(trick, 0, nextTrick, 0, trick.length);
+
+            int sample;
+            while ((sample = nextSample.getAndIncrement()) < maxSamples
+                    && (sample == 0 || System.nanoTime() < deadline)) {
+                dealSampler.sample(unseen, handSizes, excluded, new SplittableRandom(SeedSequence.split(seed, sample)),
+                        hands);
+
+                if (leadsFromTable) {
+                    hands[ownSeat] = hand;
+                    int lead = tablebase.bestLead(hands, trumpCardType, ownSeat, bid - won);
+
+                    if (lead >= 0) {
+                        totals[indexOf(lead)]++;
+                        continue;
+                    }
+                }
+                for (int i = 0; i < candidates.length; i++) {
+                    hands[ownSeat] = hand & ~(1L << candidates[i]);
+                    nextTrick[trick.length] = candidates[i];
+                    totals[i] += score(solver, hands, nextTrick);
+                }
+            }
+            return totals;
+        }
+
+        private int indexOf(int card) {
+            int index = 0;
+            while (candidates[index] != card) {
+                index++;
+            }
+            return index;
+        }
+
+        /**
+         * Scores the range of tricks the seat can end the round with, from holding its losses down to forcing its
+         * wins, with the points of {@link GameManager#roundScore(int, int)}. A bid inside the range counts as made,
+         * which makes the score an upper bound: the other seats can still keep the seat off an exact amount it could
+         * reach from either side. Searching those bids exactly did not play better, see the class comment. Endgames
+         * the table covers are scored exactly, since the table stores how close the seat gets to every need.
+         */
+        private int score(DoubleDummySolver solver, long[] hands, int[] nextTrick) {
+            int need = bid - won;
+            int trickLeader = leader;
+            int[] currentTrick = nextTrick;
+
+            if (nextTrick.length == seatAmount) {
+                int winningIndex = 0;
+
+                for (int playIndex = 1; playIndex < seatAmount; playIndex++) {
+                    if ((TrickRules.beatersOf(nextTrick[winningIndex], trumpIndex) & 1L << nextTrick[playIndex]) != 0) {
+                        winningIndex = playIndex;
+                    }
+                }
+                trickLeader = (leader + winningIndex) % seatAmount;
+                need -= trickLeader == ownSeat ? 1 : 0;
+                currentTrick = new int[0];
+
+                if (hands[trickLeader] == 0) {
+                    return GameManager.roundScore(bid, bid - need);
+                }
+            }
+
+            // after the current trick every hand holds as many cards as its leader does now
+            if (tablebase != null && tablebase.covers(seatAmount, Long.bitCount(hands[trickLeader]))) {
+                int miss = tablebase.miss(hands, trumpCardType, trickLeader, currentTrick, ownSeat, need);
+
+                if (miss >= 0) {
+                    return GameManager.roundScore(bid, bid - miss);
+                }
+            }
+            if (need > 0) {
+                int most = solve(solver, hands, trickLeader, currentTrick, false);
+
+                if (most <= need) {
+                    return GameManager.roundScore(bid, bid - need + most);
+                }
+            }
+            // able to take more than needed, the bid counts as made unless even the fewest tricks are too many
+            int fewest = solve(solver, hands, trickLeader, currentTrick, true);
+            return GameManager.roundScore(bid, bid - need + Math.max(fewest, need));
+        }
+
+        private int solve(DoubleDummySolver solver, long[] hands, int trickLeader, int[] currentTrick, boolean fewest) {
+            return fewest
+                    ? solver.solveFewest(hands, trumpCardType, trickLeader, currentTrick, ownSeat)
+                    : solver.solve(hands, trumpCardType, trickLeader, currentTrick, ownSeat);
+        }
+    }
+}
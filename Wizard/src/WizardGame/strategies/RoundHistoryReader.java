@@ -0,0 +1,12 @@
+package WizardGame.strategies;
+
+/**
+ * Strategy that reads finished rounds from the round history of its game context. A bounded history
+ * ({@link WizardGame.enums.HistoryMode#RECENT}) keeps at least as many finished rounds as any seat declares.
+ */
+public interface RoundHistoryReader {
+    /**
+     * @return finished rounds before the current one the strategy looks at, at most
+     */
+    int finishedRoundsRead();
+}
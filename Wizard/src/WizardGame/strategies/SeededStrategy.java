@@ -0,0 +1,9 @@
+package WizardGame.strategies;
+
+/**
+ * Strategy that uses randomness. The engine reseeds it at the start of every game
+ * with a seed derived from the game seed, the seat and the strategy name.
+ */
+public interface SeededStrategy {
+    void setSeed(long seed);
+}
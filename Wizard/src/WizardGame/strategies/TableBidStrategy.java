@@ -0,0 +1,62 @@
+package WizardGame.strategies;
+
+import WizardGame.DTOs.BeatCardContextDTO;
+import WizardGame.DTOs.CreateTrickBidsContextDTO;
+import WizardGame.DTOs.DropCardContextDTO;
+import WizardGame.handlers.BidTable;
+import WizardGame.handlers.SeedSequence;
+import WizardGame.models.Card;
+import WizardGame.models.CardSet;
+
+/**
+ * Bids from a {@link BidTable} built from simulated rounds instead of hand-tuned weights; hands the table has no
+ * bid for and all card play are left to the fallback strategy.
+ */
+public class TableBidStrategy implements GameStrategy, SeededStrategy, RoundHistoryReader {
+    private final BidTable bidTable;
+    private final GameStrategy fallback;
+
+    public TableBidStrategy(BidTable bidTable) {
+        this(bidTable, new MetaCrusherV1());
+    }
+
+    public TableBidStrategy(BidTable bidTable, GameStrategy fallback) {
+        this.bidTable = bidTable;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        if (fallback instanceof SeededStrategy seededStrategy) {
+            seededStrategy.setSeed(SeedSequence.split(seed, 0));
+        }
+    }
+
+    @Override
+    public int finishedRoundsRead() {
+        return fallback instanceof RoundHistoryReader reader ? reader.finishedRoundsRead() : 0;
+    }
+
+    @Override
+    public Integer createTrickBids(CreateTrickBidsContextDTO createTrickBidsContextDTO) {
+        int bid = bidTable.bid(CardSet.maskOf(createTrickBidsContextDTO.ownCards()),
+                createTrickBidsContextDTO.trumpCard(), createTrickBidsContextDTO.gameContextDTO().botAmount());
+
+        return bid >= 0 ? bid : fallback.createTrickBids(createTrickBidsContextDTO);
+    }
+
+    @Override
+    public Card dropCard(DropCardContextDTO dropCardContextDTO) {
+        return fallback.dropCard(dropCardContextDTO);
+    }
+
+    @Override
+    public Card beatCard(BeatCardContextDTO beatCardContextDTO) {
+        return fallback.beatCard(beatCardContextDTO);
+    }
+
+    @Override
+    public String getStrategyName() {
+        return "TableBid";
+    }
+}
@@ -0,0 +1,42 @@
+package WizardGame.strategies;
+
+import WizardGame.contexts.RoundContext;
+import WizardGame.enums.CardType;
+import WizardGame.handlers.CardRegistry;
+
+/**
+ * Cards other seats cannot hold in the current round, as masks by seat: a suit card on a lead of another suit
+ * shows the seat is out of the led suit. Only tricks the owner sees in play order are observed, i.e. the cards
+ * before its own response. Sampling strategies pass the masks to {@link WizardGame.handlers.DealSampler}.
+ */
+final class VoidTracker {
+    private long[] excluded = new long[0];
+    private int roundNumber = -1;
+
+    /**
+     * @return masks by seat, cleared when a new round starts
+     */
+    long[] excluded(RoundContext roundContext, int seatAmount) {
+        if (excluded.length != seatAmount || roundNumber != roundContext.number()) {
+            excluded = new long[seatAmount];
+            roundNumber = roundContext.number();
+        }
+        return excluded;
+    }
+
+    void observeTrick(RoundContext roundContext, int[] trick, int leader, int seatAmount) {
+        long[] excluded = excluded(roundContext, seatAmount);
+        CardType ledType = CardRegistry.getCard(trick[0]).getType();
+
+        if (!CardRegistry.isSuit(ledType)) {
+            return;
+        }
+        for (int playIndex = 1; playIndex < trick.length; playIndex++) {
+            CardType type = CardRegistry.getCard(trick[playIndex]).getType();
+
+            if (CardRegistry.isSuit(type) && type != ledType) {
+                excluded[(leader + playIndex) % seatAmount] |= CardRegistry.typeMask(ledType);
+            }
+        }
+    }
+}